@@ -0,0 +1,102 @@
+package benchmark;
+
+import model.Customer;
+import model.Employee;
+import model.Person;
+import org.openjdk.jmh.annotations.*;
+import service.AnalyticsEngine;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every AnalyticsEngine method, both the List and the Stream overloads, over in-memory datasets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsEngineBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int datasetSize;
+
+    private final AnalyticsEngine engine = new AnalyticsEngine();
+    private List<Employee> employees;
+    private List<Customer> customers;
+    private List<Person> people;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = BenchmarkData.employees(datasetSize);
+        customers = BenchmarkData.customers(datasetSize);
+        people = BenchmarkData.people(employees, customers);
+    }
+
+    // --- List overloads ---
+
+    @Benchmark
+    public double averageAge() {
+        return engine.calculateAverageAge(people);
+    }
+
+    @Benchmark
+    public double averageSalary() {
+        return engine.calculateAverageSalary(employees);
+    }
+
+    @Benchmark
+    public long countMembershipLevel() {
+        return engine.countMembershipLevel(customers, "Gold");
+    }
+
+    @Benchmark
+    public Map<String, Double> averageSalaryByJobTitle() {
+        return engine.getAverageSalaryByJobTitle(employees);
+    }
+
+    @Benchmark
+    public Map<String, Integer> employeeCountByJobTitle() {
+        return engine.getEmployeeCountByJobTitle(employees);
+    }
+
+    @Benchmark
+    public Map<String, Integer> customerCountByMembershipLevel() {
+        return engine.getCustomerCountByMembershipLevel(customers);
+    }
+
+    // --- Stream overloads ---
+
+    @Benchmark
+    public double averageAgeStream() {
+        return engine.calculateAverageAge(people.stream());
+    }
+
+    @Benchmark
+    public double averageSalaryStream() {
+        return engine.calculateAverageSalary(employees.stream());
+    }
+
+    @Benchmark
+    public long countMembershipLevelStream() {
+        return engine.countMembershipLevel(customers.stream(), "Gold");
+    }
+
+    @Benchmark
+    public Map<String, Double> averageSalaryByJobTitleStream() {
+        return engine.getAverageSalaryByJobTitle(employees.stream());
+    }
+
+    @Benchmark
+    public Map<String, Integer> employeeCountByJobTitleStream() {
+        return engine.getEmployeeCountByJobTitle(employees.stream());
+    }
+
+    @Benchmark
+    public Map<String, Integer> customerCountByMembershipLevelStream() {
+        return engine.getCustomerCountByMembershipLevel(customers.stream());
+    }
+}
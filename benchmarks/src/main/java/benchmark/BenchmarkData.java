@@ -0,0 +1,89 @@
+package benchmark;
+
+import model.Customer;
+import model.Employee;
+import model.Person;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ * A fixed seed keeps the datasets identical between runs and releases, so results stay comparable.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 20240601L;
+
+    static final String[] JOB_TITLES = {
+            "Software Engineer", "Accountant", "HR Specialist", "Sales Representative",
+            "Manager", "Support Agent", "Data Analyst", "Designer"
+    };
+    static final String[] MEMBERSHIP_LEVELS = {"Bronze", "Silver", "Gold", "Platinum"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Employee> employees(int count) {
+        Random random = new Random(SEED);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(new Employee(
+                    String.format("E%08d", i),
+                    "Employee " + i,
+                    19 + random.nextInt(47),
+                    25_000 + random.nextInt(150_000) + random.nextInt(100) / 100.0,
+                    JOB_TITLES[random.nextInt(JOB_TITLES.length)]));
+        }
+        return employees;
+    }
+
+    static List<Customer> customers(int count) {
+        Random random = new Random(SEED + 1);
+        LocalDate today = LocalDate.now();
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customers.add(new Customer(
+                    String.format("C%08d", i),
+                    "Customer " + i,
+                    18 + random.nextInt(70),
+                    MEMBERSHIP_LEVELS[random.nextInt(MEMBERSHIP_LEVELS.length)],
+                    today.minusDays(random.nextInt(3 * 365))));
+        }
+        return customers;
+    }
+
+    static List<Person> people(List<Employee> employees, List<Customer> customers) {
+        List<Person> people = new ArrayList<>(employees.size() + customers.size());
+        people.addAll(employees);
+        people.addAll(customers);
+        return people;
+    }
+
+    /**
+     * Points the application at a fresh temporary database file.
+     * Must run before SQLiteConnection is first loaded (the URL is read once, at class init),
+     * which JMH guarantees as long as each trial runs in its own fork.
+     */
+    static Path useTemporaryDatabase(String prefix) throws IOException {
+        Path file = Files.createTempFile(prefix, ".sqlite");
+        file.toFile().deleteOnExit();
+        System.setProperty("ecms.db.url", "jdbc:sqlite:" + file.toAbsolutePath());
+        return file;
+    }
+
+    static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Path.of(file + "-wal"));
+            Files.deleteIfExists(Path.of(file + "-shm"));
+        } catch (IOException e) {
+            System.err.println("Could not delete benchmark file " + file + ": " + e.getMessage());
+        }
+    }
+}
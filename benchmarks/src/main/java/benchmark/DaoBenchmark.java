@@ -0,0 +1,126 @@
+package benchmark;
+
+import dao.sqlite.CustomerDAOImpl;
+import dao.sqlite.EmployeeDAOImpl;
+import dao.sqlite.SQLiteConnection;
+import model.Customer;
+import model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * CRUD and findAll/streamAll against a SQLite file pre-loaded with datasetSize employees and customers.
+ * Inserts are paired with a delete so the table size stays constant across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1) // Required: each trial needs a fresh JVM so SQLiteConnection picks up its own database file
+public class DaoBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int datasetSize;
+
+    private Path databaseFile;
+    private EmployeeDAOImpl employeeDAO;
+    private CustomerDAOImpl customerDAO;
+    private List<Employee> employees;
+    private List<Customer> customers;
+    private long insertSequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        databaseFile = BenchmarkData.useTemporaryDatabase("ecms-dao-bench");
+        employeeDAO = new EmployeeDAOImpl();
+        customerDAO = new CustomerDAOImpl();
+        employees = BenchmarkData.employees(datasetSize);
+        customers = BenchmarkData.customers(datasetSize);
+        employeeDAO.saveAll(employees);
+        customerDAO.saveAll(customers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SQLiteConnection.getInstance().shutdown();
+        BenchmarkData.deleteQuietly(databaseFile);
+    }
+
+    // --- Employees ---
+
+    @Benchmark
+    public Employee employeeFindById() {
+        return employeeDAO.findById(randomOf(employees).getId());
+    }
+
+    @Benchmark
+    public List<Employee> employeeFindAll() {
+        return employeeDAO.findAll();
+    }
+
+    @Benchmark
+    public long employeeStreamAll() {
+        try (Stream<Employee> stream = employeeDAO.streamAll()) {
+            return stream.count();
+        }
+    }
+
+    @Benchmark
+    public boolean employeeSaveAndDelete() {
+        String id = "EB" + (insertSequence++);
+        employeeDAO.save(new Employee(id, "Benchmark Employee", 30, 50_000, "Designer"));
+        return employeeDAO.delete(id);
+    }
+
+    @Benchmark
+    public void employeeUpdate() {
+        Employee employee = randomOf(employees);
+        employee.setSalary(employee.getSalary() + 1);
+        employeeDAO.update(employee);
+    }
+
+    // --- Customers ---
+
+    @Benchmark
+    public Customer customerFindById() {
+        return customerDAO.findById(randomOf(customers).getId());
+    }
+
+    @Benchmark
+    public List<Customer> customerFindAll() {
+        return customerDAO.findAll();
+    }
+
+    @Benchmark
+    public long customerStreamAll() {
+        try (Stream<Customer> stream = customerDAO.streamAll()) {
+            return stream.count();
+        }
+    }
+
+    @Benchmark
+    public boolean customerSaveAndDelete() {
+        String id = "CB" + (insertSequence++);
+        customerDAO.save(new Customer(id, "Benchmark Customer", 30, "Gold", LocalDate.now()));
+        return customerDAO.delete(id);
+    }
+
+    @Benchmark
+    public void customerUpdate() {
+        Customer customer = randomOf(customers);
+        customer.setAge(customer.getAge() % 80 + 18);
+        customerDAO.update(customer);
+    }
+
+    private static <T> T randomOf(List<T> list) {
+        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
+    }
+}
@@ -0,0 +1,85 @@
+package benchmark;
+
+import dao.file.JsonExporter;
+import dao.file.TextExporter;
+import model.Customer;
+import model.Employee;
+import org.openjdk.jmh.annotations.*;
+import util.DataExporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File exports of datasetSize rows: DataExporter (CSV), TextExporter and JsonExporter.
+ * Each invocation overwrites the same file in a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+
+    private static final String[] EMPLOYEE_HEADER = {"ID", "Name", "Job Title", "Age", "Salary"};
+
+    @Param({"1000", "100000"})
+    public int datasetSize;
+
+    private final TextExporter textExporter = new TextExporter();
+    private final JsonExporter jsonExporter = new JsonExporter();
+    private Path outputDirectory;
+    private List<Employee> employees;
+    private List<Customer> customers;
+    private List<String[]> employeeRows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("ecms-export-bench");
+        employees = BenchmarkData.employees(datasetSize);
+        customers = BenchmarkData.customers(datasetSize);
+        employeeRows = new ArrayList<>(datasetSize);
+        for (Employee e : employees) {
+            employeeRows.add(new String[]{e.getId(), e.getName(), e.getJobTitle(),
+                    String.valueOf(e.getAge()), String.format("%.2f", e.getSalary())});
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(outputDirectory)) {
+            files.forEach(BenchmarkData::deleteQuietly);
+        }
+        Files.deleteIfExists(outputDirectory);
+    }
+
+    @Benchmark
+    public void dataExporterCsv() throws IOException {
+        DataExporter.exportToCsv(file("employees.csv"), EMPLOYEE_HEADER, employeeRows);
+    }
+
+    @Benchmark
+    public void textExporterEmployees() throws IOException {
+        textExporter.export(employees, file("employees.txt"));
+    }
+
+    @Benchmark
+    public void textExporterCustomers() throws IOException {
+        textExporter.export(customers, file("customers.txt"));
+    }
+
+    // Employees only: Gson cannot reflect into java.time.LocalDate (Customer) on JDK 17 without an adapter
+    @Benchmark
+    public void jsonExporterEmployees() throws IOException {
+        jsonExporter.export(employees, file("employees.json"));
+    }
+
+    private String file(String name) {
+        return outputDirectory.resolve(name).toString();
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import util.PasswordHasher;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashing and verification cost, which bounds login and user provisioning throughput.
+ * hashPassword/verifyPassword run PBKDF2 at the configured cost (-Decms.password.iterations);
+ * verifyLegacyPassword measures the old unsalted SHA-256 format that is still accepted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordHasherBenchmark {
+
+    @Param({"8", "64"})
+    public int passwordLength;
+
+    private String password;
+    private String storedHash;
+    private String legacyHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        password = "p".repeat(passwordLength);
+        storedHash = PasswordHasher.hashPassword(password);
+        try {
+            legacyHash = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(password.getBytes()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return PasswordHasher.hashPassword(password);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return PasswordHasher.verifyPassword(password, storedHash);
+    }
+
+    @Benchmark
+    public boolean verifyLegacyPassword() {
+        return PasswordHasher.verifyPassword(password, legacyHash);
+    }
+}
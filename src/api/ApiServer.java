@@ -0,0 +1,619 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dao.Page;
+import dao.sqlite.SQLiteConnection;
+import exception.DataAccessException;
+import exception.DuplicateKeyException;
+import model.Customer;
+import model.Employee;
+import model.Person;
+import service.ManagementService;
+import service.Permission;
+import service.Session;
+import util.CustomExceptions;
+import util.TimeOrderedIds;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Embedded HTTP/JSON API over the ManagementService, for scripts and integrations that need
+ * concurrent access without the desktop client.
+ *
+ * Usage: java -cp <classpath> api.ApiServer
+ * Configuration (system properties):
+ *   ecms.api.host (default 127.0.0.1), ecms.api.port (default 8080),
+ *   ecms.api.threads (worker threads, default 64), ecms.api.queue (queued requests, default 1000).
+ *
+ * Authentication: HTTP Basic on every request, or once with POST /api/sessions and then
+ * "Authorization: Bearer <token>" until DELETE /api/sessions or idle expiry. Permissions come from AccessPolicy.
+ *
+ * Routes:
+ *   POST   /api/sessions                                   201 {token, username, role}
+ *   DELETE /api/sessions                                   204
+ *   GET    /api/employees?sort=&pageSize=&token=|offset=   one page: {items, nextToken, hasNext}
+ *   GET    /api/employees/{id}
+ *   POST   /api/employees                                  201, id generated if missing; 409 if the id exists
+ *   PUT    /api/employees/{id}                             200, or 404
+ *   DELETE /api/employees/{id}                             204, or 404
+ *   (the same for /api/customers)
+ *   GET    /api/analytics
+ *   GET    /api/export/employees, /api/export/customers    streamed CSV
+ *   GET    /api/metrics                                    latency per route, worker and pool statistics
+ *
+ * Requests run on a bounded worker pool. Every request blocks on SQLite, so throughput is set by the
+ * number of workers and database connections rather than by CPU; when all workers are busy and the
+ * queue is full the accepting thread runs the request itself, which stops it accepting new
+ * connections until the load drops (back-pressure instead of unbounded queuing).
+ */
+public class ApiServer {
+
+    // --- Configuration (-Decms.api.*) ---
+    private static final String HOST = System.getProperty("ecms.api.host", "127.0.0.1");
+    private static final int PORT = Integer.getInteger("ecms.api.port", 8080);
+    private static final int WORKER_THREADS = Integer.getInteger("ecms.api.threads", 64);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("ecms.api.queue", 1000);
+    private static final int MAX_DB_READERS = 16; // Default reader pool cap when ecms.db.readers is not set
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ManagementService service;
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final LatencyMetrics metrics = new LatencyMetrics();
+    private final Gson gson;
+
+    /**
+     * An error that maps directly to an HTTP status code.
+     */
+    private static final class ApiException extends RuntimeException {
+        private final int status;
+
+        private ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Handles one authenticated request.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        void handle(HttpExchange exchange, Session session) throws Exception;
+    }
+
+    /**
+     * The service operations behind the /api/employees and /api/customers routes.
+     */
+    private static final class EntityRoutes<T extends Person> {
+        final String path;
+        final String label;
+        final Class<T> type;
+        final Permission readPermission;
+        final Permission writePermission;
+        final PageQuery<T> page;
+        final OffsetPageQuery<T> pageAt;
+        final Function<String, Optional<T>> findById;
+        final Consumer<T> save;       // Throws DuplicateKeyException for an existing id
+        final Predicate<T> update;    // false if no record has the id
+        final Predicate<String> delete;
+
+        EntityRoutes(String path, String label, Class<T> type, Permission readPermission, Permission writePermission,
+                     PageQuery<T> page, OffsetPageQuery<T> pageAt, Function<String, Optional<T>> findById,
+                     Consumer<T> save, Predicate<T> update, Predicate<String> delete) {
+            this.path = path;
+            this.label = label;
+            this.type = type;
+            this.readPermission = readPermission;
+            this.writePermission = writePermission;
+            this.page = page;
+            this.pageAt = pageAt;
+            this.findById = findById;
+            this.save = save;
+            this.update = update;
+            this.delete = delete;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageQuery<T> {
+        Page<T> fetch(String sortColumn, int pageSize, String continuationToken);
+    }
+
+    @FunctionalInterface
+    private interface OffsetPageQuery<T> {
+        Page<T> fetch(String sortColumn, long offset, int pageSize);
+    }
+
+    // =========================================================
+    // LIFECYCLE
+    // =========================================================
+
+    /**
+     * Creates the server (not started yet).
+     * @param service The service layer shared by all workers.
+     * @param address The address to bind.
+     * @param workerThreads Maximum number of requests processed at the same time.
+     * @param queueCapacity Requests that may wait for a worker before back-pressure starts.
+     * @throws IOException If the address cannot be bound.
+     */
+    public ApiServer(ManagementService service, InetSocketAddress address, int workerThreads, int queueCapacity) throws IOException {
+        this.service = service;
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, (JsonSerializer<LocalDate>) (date, type, context) ->
+                        new JsonPrimitive(date.toString()))
+                .registerTypeAdapter(LocalDate.class, (JsonDeserializer<LocalDate>) (json, type, context) -> {
+                    try {
+                        return LocalDate.parse(json.getAsString());
+                    } catch (DateTimeParseException e) {
+                        throw new JsonParseException("Invalid date (expected yyyy-MM-dd): " + json.getAsString(), e);
+                    }
+                })
+                .create();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "ecms-api-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true); // Idle servers do not hold the threads
+
+        this.server = HttpServer.create(address, 0);
+        this.server.setExecutor(executor);
+
+        registerEntityRoutes(new EntityRoutes<>("/api/employees", "Employee", Employee.class,
+                Permission.EMPLOYEE_READ, Permission.EMPLOYEE_WRITE,
+                service::getEmployeePage, service::getEmployeePageAt, service::getEmployeeById,
+                service::saveEmployee, service::updateEmployee, service::deleteEmployee));
+        registerEntityRoutes(new EntityRoutes<>("/api/customers", "Customer", Customer.class,
+                Permission.CUSTOMER_READ, Permission.CUSTOMER_WRITE,
+                service::getCustomerPage, service::getCustomerPageAt, service::getCustomerById,
+                service::saveCustomer, service::updateCustomer, service::deleteCustomer));
+
+        server.createContext("/api/sessions", exchange -> dispatch(exchange.getRequestMethod() + " /api/sessions",
+                exchange, false, this::sessions));
+        server.createContext("/api/analytics", exchange -> dispatch("GET /api/analytics", exchange, this::analytics));
+        server.createContext("/api/export/employees", exchange -> dispatch("GET /api/export/employees", exchange,
+                (ex, session) -> export(ex, session, Permission.EMPLOYEE_EXPORT, "employees", service::exportEmployeesToCsv)));
+        server.createContext("/api/export/customers", exchange -> dispatch("GET /api/export/customers", exchange,
+                (ex, session) -> export(ex, session, Permission.CUSTOMER_EXPORT, "customers", service::exportCustomersToCsv)));
+        server.createContext("/api/metrics", exchange -> dispatch("GET /api/metrics", exchange, this::metrics));
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("ECMS API listening on http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + " (" + executor.getMaximumPoolSize() + " workers).");
+    }
+
+    /**
+     * Stops accepting requests, waits up to delaySeconds for running ones, then stops the workers.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        // The desktop default (up to 4 readers) would make most workers wait for a connection;
+        // give the pool more readers unless the operator chose a size. Must be set before the
+        // connection class is first used.
+        if (System.getProperty("ecms.db.readers") == null) {
+            System.setProperty("ecms.db.readers", String.valueOf(Math.max(2, Math.min(WORKER_THREADS, MAX_DB_READERS))));
+        }
+
+        ManagementService service = new ManagementService();
+        ApiServer apiServer = new ApiServer(service, new InetSocketAddress(HOST, PORT), WORKER_THREADS, QUEUE_CAPACITY);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop(2);
+            SQLiteConnection.getInstance().shutdown();
+        }, "ecms-api-shutdown"));
+        apiServer.start();
+    }
+
+    // =========================================================
+    // REQUEST DISPATCH
+    // =========================================================
+
+    /**
+     * Authenticates the request, runs the endpoint, maps exceptions to status codes, records the
+     * latency and always closes the exchange.
+     */
+    private void dispatch(String route, HttpExchange exchange, Endpoint endpoint) {
+        dispatch(route, exchange, true, endpoint);
+    }
+
+    private void dispatch(String route, HttpExchange exchange, boolean authenticated, Endpoint endpoint) {
+        long start = System.nanoTime();
+        int status;
+        try {
+            if (authenticated) {
+                // The ManagementService checks the same permissions against the bound session
+                Session session = authenticate(exchange);
+                service.getAuthService().callAs(session, () -> {
+                    endpoint.handle(exchange, session);
+                    return null;
+                });
+            } else {
+                endpoint.handle(exchange, null);
+            }
+            status = exchange.getResponseCode();
+        } catch (ApiException e) {
+            status = sendError(exchange, e.status, e.getMessage());
+        } catch (SecurityException e) {
+            status = sendError(exchange, 403, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            // The password hashing pool is saturated (login storm); ask the client to retry
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            status = sendError(exchange, 503, "Server busy, retry later.");
+        } catch (IllegalArgumentException | JsonParseException e) {
+            status = sendError(exchange, 400, e.getMessage());
+        } catch (DataAccessException e) {
+            // The write did not happen (writer timeout, SQLITE_BUSY, I/O error)
+            System.err.println("API request " + route + " failed in the database: " + e.getMessage());
+            status = sendError(exchange, 500, "The database operation failed.");
+        } catch (Exception e) {
+            System.err.println("API request " + route + " failed: " + e);
+            status = sendError(exchange, 500, "Internal server error.");
+        } finally {
+            exchange.close();
+        }
+        metrics.record(route, System.nanoTime() - start, status >= 500);
+    }
+
+    /**
+     * Identifies the caller: "Authorization: Bearer <token>" uses a session from POST /api/sessions
+     * (no password check per request); "Authorization: Basic ..." checks the credentials every time.
+     * @throws ApiException 401 if the credentials are missing or invalid, or the session has expired.
+     */
+    private Session authenticate(HttpExchange exchange) {
+        String token = bearerToken(exchange);
+        if (token != null) {
+            return service.getAuthService().findSession(token)
+                    .orElseThrow(() -> new ApiException(401, "Session expired or unknown; log in again."));
+        }
+        String[] credentials = basicCredentials(exchange);
+        try {
+            return service.getAuthService().authenticateRequest(credentials[0], credentials[1]);
+        } catch (CustomExceptions.RecordNotFoundException | SecurityException e) {
+            // Same answer for unknown users and wrong passwords
+            throw new ApiException(401, "Invalid username or password.");
+        }
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+    /**
+     * @return {username, password} from the HTTP Basic header.
+     * @throws ApiException 401 if the header is missing or malformed.
+     */
+    private static String[] basicCredentials(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"ECMS\"");
+            throw new ApiException(401, "Authentication required.");
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(401, "Malformed credentials.");
+        }
+        int colon = credentials.indexOf(':');
+        if (colon < 0) {
+            throw new ApiException(401, "Malformed credentials.");
+        }
+        return new String[] {credentials.substring(0, colon), credentials.substring(colon + 1)};
+    }
+
+    // =========================================================
+    // SESSIONS
+    // =========================================================
+
+    /**
+     * POST opens a session from Basic credentials; DELETE closes the session of the Bearer token.
+     * Runs without the usual authentication step, so the password is checked only once.
+     */
+    private void sessions(HttpExchange exchange, Session unused) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (method.equals("POST")) {
+            String[] credentials = basicCredentials(exchange);
+            Session session;
+            try {
+                session = service.getAuthService().openSession(credentials[0], credentials[1]);
+            } catch (CustomExceptions.RecordNotFoundException | SecurityException e) {
+                throw new ApiException(401, "Invalid username or password.");
+            }
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("token", session.getToken());
+            body.put("username", session.getUsername());
+            body.put("role", session.getRole());
+            sendJson(exchange, 201, body);
+        } else if (method.equals("DELETE")) {
+            if (!service.getAuthService().closeSession(bearerToken(exchange))) {
+                throw new ApiException(404, "Session expired or unknown.");
+            }
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            throw new ApiException(405, "Method " + method + " is not allowed here.");
+        }
+    }
+
+    // =========================================================
+    // ENTITY ROUTES
+    // =========================================================
+
+    private <T extends Person> void registerEntityRoutes(EntityRoutes<T> routes) {
+        server.createContext(routes.path, exchange -> {
+            String method = exchange.getRequestMethod();
+            String rest = exchange.getRequestURI().getRawPath().substring(routes.path.length());
+            String route = method + " " + routes.path + (rest.length() > 1 ? "/{id}" : "");
+            dispatch(route, exchange, (ex, session) -> handleEntity(ex, session, routes, method, pathId(ex, routes.path)));
+        });
+    }
+
+    private <T extends Person> void handleEntity(HttpExchange exchange, Session session, EntityRoutes<T> routes,
+                                                 String method, String id) throws IOException {
+        if (method.equals("GET")) {
+            session.getPermissions().require(routes.readPermission);
+            if (id == null) {
+                sendJson(exchange, 200, page(exchange, routes));
+            } else {
+                sendJson(exchange, 200, routes.findById.apply(id)
+                        .orElseThrow(() -> new ApiException(404, routes.label + " not found: " + id)));
+            }
+        } else if (method.equals("POST") && id == null) {
+            session.getPermissions().require(routes.writePermission);
+            T entity = readBody(exchange, routes.type);
+            if (entity.getId() == null || entity.getId().isBlank()) {
+                entity.setId(TimeOrderedIds.newId());
+            }
+            // No lookup first: the primary key decides, so concurrent POSTs of one id get exactly one 201
+            try {
+                routes.save.accept(entity);
+            } catch (DuplicateKeyException e) {
+                throw new ApiException(409, routes.label + " already exists: " + entity.getId());
+            }
+            exchange.getResponseHeaders().set("Location", routes.path + "/" + entity.getId());
+            sendJson(exchange, 201, entity);
+        } else if (method.equals("PUT") && id != null) {
+            session.getPermissions().require(routes.writePermission);
+            T entity = readBody(exchange, routes.type);
+            entity.setId(id); // The path decides which record is updated
+            if (!routes.update.test(entity)) {
+                throw new ApiException(404, routes.label + " not found: " + id);
+            }
+            sendJson(exchange, 200, entity);
+        } else if (method.equals("DELETE") && id != null) {
+            session.getPermissions().require(routes.writePermission);
+            if (!routes.delete.test(id)) {
+                throw new ApiException(404, routes.label + " not found: " + id);
+            }
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            throw new ApiException(405, "Method " + method + " is not allowed here.");
+        }
+    }
+
+    /**
+     * Reads one page: ?token= continues keyset paging, ?offset= jumps to a row position.
+     */
+    private <T extends Person> Map<String, Object> page(HttpExchange exchange, EntityRoutes<T> routes) {
+        Map<String, String> query = queryParameters(exchange);
+        String sort = query.get("sort");
+        int pageSize = Math.min(MAX_PAGE_SIZE, intParameter(query, "pageSize", DEFAULT_PAGE_SIZE));
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive.");
+        }
+        Page<T> page = query.containsKey("offset")
+                ? routes.pageAt.fetch(sort, longParameter(query, "offset"), pageSize)
+                : routes.page.fetch(sort, pageSize, query.get("token"));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("items", page.getItems());
+        body.put("nextToken", page.getContinuationToken());
+        body.put("hasNext", page.hasNext());
+        return body;
+    }
+
+    // =========================================================
+    // ANALYTICS, EXPORT, METRICS
+    // =========================================================
+
+    private void analytics(HttpExchange exchange, Session session) throws IOException {
+        requireGet(exchange);
+        session.getPermissions().require(Permission.ANALYTICS_VIEW);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("employees", service.countEmployees());
+        body.put("customers", service.countCustomers());
+        body.put("averageSalary", service.getAverageSalary());
+        body.put("averageAge", service.getAverageAge());
+        body.put("employeeCountByJobTitle", service.getEmployeeCountByJobTitle());
+        body.put("averageSalaryByJobTitle", service.getAverageSalaryByJobTitle());
+        body.put("customerCountByMembershipLevel", service.getCustomerCountByMembershipLevel());
+        sendJson(exchange, 200, body);
+    }
+
+    @FunctionalInterface
+    private interface CsvExport {
+        long export(String filePath) throws IOException;
+    }
+
+    /**
+     * Exports to a temporary file with the streaming exporter, then streams the file to the client.
+     */
+    private void export(HttpExchange exchange, Session session, Permission permission, String name, CsvExport csvExport) throws IOException {
+        requireGet(exchange);
+        session.getPermissions().require(permission);
+        Path file = Files.createTempFile("ecms-" + name + "-", ".csv");
+        try {
+            csvExport.export(file.toString());
+            exchange.getResponseHeaders().set("Content-Type", "text/csv; charset=utf-8");
+            exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + name + ".csv\"");
+            exchange.sendResponseHeaders(200, Files.size(file));
+            try (OutputStream body = exchange.getResponseBody()) {
+                Files.copy(file, body);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void metrics(HttpExchange exchange, Session session) throws IOException {
+        requireGet(exchange);
+        session.getPermissions().require(Permission.MAINTENANCE);
+        Map<String, Object> workers = new LinkedHashMap<>();
+        workers.put("maximum", executor.getMaximumPoolSize());
+        workers.put("current", executor.getPoolSize());
+        workers.put("active", executor.getActiveCount());
+        workers.put("largest", executor.getLargestPoolSize());
+        workers.put("queued", executor.getQueue().size());
+        workers.put("completed", executor.getCompletedTaskCount());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("routes", metrics.snapshot());
+        body.put("workers", workers);
+        body.put("database", SQLiteConnection.getInstance().getPoolStatistics());
+        body.put("cache", service.getCacheStatistics());
+        body.put("sessions", service.getAuthService().getSessionCount());
+        sendJson(exchange, 200, body);
+    }
+
+    // =========================================================
+    // HELPERS
+    // =========================================================
+
+    private static void requireGet(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            throw new ApiException(405, "Method " + exchange.getRequestMethod() + " is not allowed here.");
+        }
+    }
+
+    /**
+     * @return The decoded {id} after the context path, or null for the collection itself.
+     * @throws ApiException 404 for deeper paths.
+     */
+    private static String pathId(HttpExchange exchange, String contextPath) {
+        String rest = exchange.getRequestURI().getRawPath().substring(contextPath.length());
+        if (rest.isEmpty() || rest.equals("/")) {
+            return null;
+        }
+        if (rest.charAt(0) != '/' || rest.indexOf('/', 1) >= 0) {
+            throw new ApiException(404, "No such resource: " + exchange.getRequestURI().getPath());
+        }
+        return URLDecoder.decode(rest.substring(1), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            String[] parts = pair.split("=", 2);
+            parameters.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return parameters;
+    }
+
+    private static int intParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter '" + name + "' must be a number: " + value);
+        }
+    }
+
+    private static long longParameter(Map<String, String> query, String name) {
+        try {
+            return Long.parseLong(query.get(name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter '" + name + "' must be a number: " + query.get(name));
+        }
+    }
+
+    private <T> T readBody(HttpExchange exchange, Class<T> type) throws IOException {
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            T value = gson.fromJson(reader, type);
+            if (value == null) {
+                throw new IllegalArgumentException("Request body must be a JSON object.");
+            }
+            return value;
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Sends {"error": message} unless the response was already started.
+     * @return The status actually sent.
+     */
+    private int sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return exchange.getResponseCode(); // Headers already sent (e.g. a failed export stream)
+        }
+        try {
+            sendJson(exchange, status, Map.of("error", message == null ? "" : message));
+        } catch (IOException e) {
+            System.err.println("Could not send API error response: " + e.getMessage());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,97 @@
+package api;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free request latency statistics per API route.
+ * Latencies are counted in power-of-two microsecond buckets (bucket i holds [2^(i-1), 2^i) us), so
+ * recording is a few atomic increments and percentiles are approximate to within a factor of two,
+ * which is enough to spot a route that stopped scaling under concurrent load.
+ */
+public class LatencyMetrics {
+
+    private static final int BUCKETS = 40; // 2^39 us is about 6 days; anything slower lands in the last bucket
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Counters for one route.
+     */
+    private static final class RouteStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void record(long micros, boolean error) {
+            count.increment();
+            if (error) {
+                errors.increment();
+            }
+            totalMicros.add(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            histogram.incrementAndGet(bucket);
+        }
+
+        /**
+         * @return The upper bound (in microseconds) of the bucket holding the given percentile.
+         */
+        long percentileMicros(double percentile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = histogram.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) return 0;
+
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(1L << i, maxMicros.get());
+                }
+            }
+            return maxMicros.get();
+        }
+    }
+
+    /**
+     * Records one completed request.
+     * @param route The route name (e.g. "GET /api/employees").
+     * @param elapsedNanos Time from receiving the request to finishing the response.
+     * @param error true if the response status was 5xx.
+     */
+    public void record(String route, long elapsedNanos, boolean error) {
+        routes.computeIfAbsent(route, k -> new RouteStats()).record(Math.max(0, elapsedNanos / 1_000), error);
+    }
+
+    /**
+     * @return Per-route statistics (count, errors, mean/p50/p95/p99/max in milliseconds), sorted by route.
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (Map.Entry<String, RouteStats> entry : routes.entrySet()) {
+            RouteStats stats = entry.getValue();
+            long count = stats.count.sum();
+            Map<String, Object> values = new TreeMap<>();
+            values.put("count", count);
+            values.put("errors", stats.errors.sum());
+            values.put("meanMillis", count == 0 ? 0.0 : stats.totalMicros.sum() / 1_000.0 / count);
+            values.put("p50Millis", stats.percentileMicros(0.50) / 1_000.0);
+            values.put("p95Millis", stats.percentileMicros(0.95) / 1_000.0);
+            values.put("p99Millis", stats.percentileMicros(0.99) / 1_000.0);
+            values.put("maxMillis", stats.maxMicros.get() / 1_000.0);
+            result.put(entry.getKey(), values);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,472 @@
+package cli;
+
+import dao.GenericDAO;
+import dao.sqlite.SQLiteConnection;
+import model.Customer;
+import model.Employee;
+import model.User;
+import service.AccessPolicy;
+import service.ManagementService;
+import service.Permission;
+import service.UserProvisioning;
+import util.CsvRecordReader;
+import util.CustomExceptions;
+import util.TimeOrderedIds;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Headless command-line entry point for scheduled batch jobs (exports, imports, reports, maintenance).
+ * Runs directly on the ManagementService and AuthenticationService; no AWT/Swing class is loaded.
+ *
+ * Usage: java -cp <classpath> cli.EcmsCli <command> [arguments] [options]
+ *   export employees|customers <file.csv>
+ *   import employees|customers <file.csv> [--chunk=N]
+ *   import users <file.csv> [--chunk=N]     (columns Username, Password, Role)
+ *   report analytics [--out=<file>]
+ *   maintenance optimize|integrity-check
+ *
+ * Every command requires a login: --user=<name> (or ECMS_USER) and the password from
+ * --password-file=<file> (or ECMS_PASSWORD); passwords are never taken from the command line.
+ * Jobs are checked against the AccessPolicy permission matrix (and again by the ManagementService).
+ *
+ * Results go to standard output as they are produced; progress and log messages go to standard error.
+ * Exit codes: 0 success, 1 failure, 2 usage error, 3 login failed or access denied,
+ * 4 a check found problems.
+ */
+public class EcmsCli {
+
+    // --- Exit Codes ---
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_ACCESS_DENIED = 3;
+    public static final int EXIT_CHECK_FAILED = 4;
+
+    private static final int DEFAULT_IMPORT_CHUNK = 10_000; // Rows per transaction
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: cli.EcmsCli <command> [arguments] [options]",
+            "  export employees|customers <file.csv>",
+            "  import employees|customers <file.csv> [--chunk=N]",
+            "  import users <file.csv> [--chunk=N]",
+            "  report analytics [--out=<file>]",
+            "  maintenance optimize|integrity-check",
+            "Login: --user=<name> or ECMS_USER; --password-file=<file> or ECMS_PASSWORD",
+            "Exit codes: 0 ok, 1 failure, 2 usage, 3 login/access denied, 4 check found problems");
+
+    private final PrintStream out;
+    private final List<String> arguments = new ArrayList<>();
+    private final Map<String, String> options = new HashMap<>();
+    private ManagementService service;
+
+    /**
+     * Thrown for invalid command lines (exit code 2).
+     */
+    private static final class UsageException extends Exception {
+        private UsageException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @param out Where results are written (standard output).
+     * @param args The command line.
+     */
+    public EcmsCli(PrintStream out, String[] args) {
+        this.out = out;
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                String[] pair = arg.substring(2).split("=", 2);
+                options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+            } else {
+                arguments.add(arg);
+            }
+        }
+    }
+
+    // =========================================================
+    // ENTRY POINT
+    // =========================================================
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        // Results own standard output; the services' log lines (System.out) are moved to standard error
+        PrintStream results = System.out;
+        System.setOut(System.err);
+
+        int exitCode = new EcmsCli(results, args).run();
+        results.flush();
+        System.exit(exitCode);
+    }
+
+    /**
+     * Runs the command.
+     * @return The process exit code.
+     */
+    public int run() {
+        long start = System.nanoTime();
+        try {
+            if (arguments.isEmpty() || options.containsKey("help")) {
+                System.err.println(USAGE);
+                return arguments.isEmpty() ? EXIT_USAGE : EXIT_OK;
+            }
+            String command = arguments.get(0);
+            if (!Arrays.asList("export", "import", "report", "maintenance").contains(command)) {
+                throw new UsageException("Unknown command: " + command);
+            }
+
+            service = new ManagementService();
+            User user = login();
+
+            int exitCode;
+            if (command.equals("export")) {
+                exitCode = export(user);
+            } else if (command.equals("import")) {
+                exitCode = importRows(user);
+            } else if (command.equals("report")) {
+                exitCode = report(user);
+            } else {
+                exitCode = maintenance(user);
+            }
+            System.err.printf("%s finished in %d ms (exit code %d).%n", command, (System.nanoTime() - start) / 1_000_000, exitCode);
+            return exitCode;
+
+        } catch (UsageException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        } catch (SecurityException | CustomExceptions.RecordNotFoundException e) {
+            System.err.println("Access denied: " + e.getMessage());
+            return EXIT_ACCESS_DENIED;
+        } catch (Exception e) {
+            System.err.println("Failed: " + e.getMessage());
+            e.printStackTrace();
+            return EXIT_FAILURE;
+        } finally {
+            if (service != null) {
+                SQLiteConnection.getInstance().shutdown();
+            }
+        }
+    }
+
+    // =========================================================
+    // AUTHENTICATION
+    // =========================================================
+
+    private User login() throws UsageException, IOException, CustomExceptions.RecordNotFoundException {
+        String username = options.getOrDefault("user", System.getenv("ECMS_USER"));
+        String password;
+        if (options.containsKey("password-file")) {
+            password = Files.readString(Paths.get(options.get("password-file")), StandardCharsets.UTF_8).strip();
+        } else {
+            password = System.getenv("ECMS_PASSWORD");
+        }
+        if (username == null || password == null) {
+            throw new UsageException("Login required: set --user/ECMS_USER and --password-file/ECMS_PASSWORD.");
+        }
+        User user = service.getAuthService().login(username, password);
+        service.getAuthService().setActiveUser(user);
+        return user;
+    }
+
+
+    // =========================================================
+    // EXPORT
+    // =========================================================
+
+    private int export(User user) throws UsageException, IOException {
+        String entity = argument(1, "employees|customers");
+        String file = argument(2, "output file");
+        long rows;
+        if (entity.equals("employees")) {
+            AccessPolicy.permissionsFor(user).require(Permission.EMPLOYEE_EXPORT);
+            rows = service.exportEmployeesToCsv(file);
+        } else if (entity.equals("customers")) {
+            AccessPolicy.permissionsFor(user).require(Permission.CUSTOMER_EXPORT);
+            rows = service.exportCustomersToCsv(file);
+        } else {
+            throw new UsageException("Unknown entity: " + entity);
+        }
+        out.println("exported\t" + entity + "\t" + rows + "\t" + file);
+        return EXIT_OK;
+    }
+
+    // =========================================================
+    // IMPORT (streamed, one transaction per chunk)
+    // =========================================================
+
+    private int importRows(User user) throws UsageException, IOException {
+        String entity = argument(1, "employees|customers|users");
+        Path file = Paths.get(argument(2, "input file"));
+        int chunkSize = intOption("chunk", DEFAULT_IMPORT_CHUNK);
+
+        if (entity.equals("employees")) {
+            AccessPolicy.permissionsFor(user).require(Permission.EMPLOYEE_WRITE);
+            return importFile(file, chunkSize, new String[]{"ID", "Name", "Job Title", "Age", "Salary"},
+                    EcmsCli::parseEmployee, service::saveEmployees, entity);
+        } else if (entity.equals("customers")) {
+            AccessPolicy.permissionsFor(user).require(Permission.CUSTOMER_WRITE);
+            return importFile(file, chunkSize, new String[]{"ID", "Name", "Age", "Membership Level", "Last Purchase Date"},
+                    EcmsCli::parseCustomer, service::saveCustomers, entity);
+        } else if (entity.equals("users")) {
+            AccessPolicy.permissionsFor(user).require(Permission.USER_MANAGE);
+            return importFile(file, chunkSize, new String[]{"Username", "Password", "Role"},
+                    EcmsCli::parseUserRequest, (chunk, batchSize) -> provisionUsers(chunk), entity);
+        }
+        throw new UsageException("Unknown entity: " + entity);
+    }
+
+    /**
+     * Creates one chunk of accounts. Rows that were not created (invalid or taken usernames) are
+     * listed on standard output and do not stop the import.
+     * @return The number of accounts created.
+     */
+    private int provisionUsers(List<UserProvisioning.Request> chunk) {
+        int created = 0;
+        for (UserProvisioning.Result result : service.registerNewUsers(chunk)) {
+            if (result.isCreated()) {
+                created++;
+            } else {
+                out.println("skipped\t" + result.getUsername() + "\t" + result.getStatus() + "\t" + result.getMessage());
+            }
+        }
+        return created;
+    }
+
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(List<String> record, int[] columns);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        int write(List<T> chunk, int batchSize);
+    }
+
+    /**
+     * Reads the CSV file record by record and saves it in chunks, so memory use does not depend on
+     * the file size. Columns are matched by header name (the export's header); ID may be missing
+     * or blank, in which case a new ID is generated. Chunks saved before an error stay committed.
+     */
+    private <T> int importFile(Path file, int chunkSize, String[] columnNames, RowParser<T> parser,
+                               ChunkWriter<T> writer, String entity) throws IOException {
+        long imported = 0;
+        try (CsvRecordReader csv = new CsvRecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                out.println("imported\t" + entity + "\t0\t" + file);
+                return EXIT_OK;
+            }
+            int[] columns = columnIndexes(header, columnNames);
+
+            List<T> chunk = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                try {
+                    chunk.add(parser.parse(record, columns));
+                } catch (RuntimeException e) {
+                    throw new IOException("Line " + csv.getRecordLineNumber() + ": " + e.getMessage()
+                            + " (" + imported + " rows were imported before this line)", e);
+                }
+                if (chunk.size() == chunkSize) {
+                    imported += saveChunk(writer, chunk, imported);
+                    System.err.printf("Imported %,d %s...%n", imported, entity);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                imported += saveChunk(writer, chunk, imported);
+            }
+        }
+        out.println("imported\t" + entity + "\t" + imported + "\t" + file);
+        return EXIT_OK;
+    }
+
+    private static <T> int saveChunk(ChunkWriter<T> writer, List<T> chunk, long importedSoFar) throws IOException {
+        try {
+            int saved = writer.write(chunk, GenericDAO.DEFAULT_BATCH_SIZE);
+            chunk.clear();
+            return saved;
+        } catch (RuntimeException e) {
+            throw new IOException(e.getMessage() + " (" + importedSoFar + " rows were imported before this chunk)", e);
+        }
+    }
+
+    /**
+     * Maps the expected column names to their positions in the header (-1 if absent).
+     * Every column except the first (ID) is required.
+     */
+    private static int[] columnIndexes(List<String> header, String[] columnNames) throws IOException {
+        int[] columns = new int[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            columns[i] = -1;
+            for (int h = 0; h < header.size(); h++) {
+                if (header.get(h).trim().equalsIgnoreCase(columnNames[i])) {
+                    columns[i] = h;
+                    break;
+                }
+            }
+            if (columns[i] < 0 && i > 0) {
+                throw new IOException("Missing column '" + columnNames[i] + "' in header " + header);
+            }
+        }
+        return columns;
+    }
+
+    private static String field(List<String> record, int column) {
+        return column < 0 || column >= record.size() ? "" : record.get(column).trim();
+    }
+
+    private static String idOrNew(List<String> record, int column) {
+        String id = field(record, column);
+        return id.isEmpty() ? TimeOrderedIds.newId() : id;
+    }
+
+    private static Employee parseEmployee(List<String> record, int[] columns) {
+        return new Employee(idOrNew(record, columns[0]), field(record, columns[1]),
+                Integer.parseInt(field(record, columns[3])),
+                Double.parseDouble(field(record, columns[4])),
+                field(record, columns[2]));
+    }
+
+    private static Customer parseCustomer(List<String> record, int[] columns) {
+        try {
+            return new Customer(idOrNew(record, columns[0]), field(record, columns[1]),
+                    Integer.parseInt(field(record, columns[2])),
+                    field(record, columns[3]),
+                    LocalDate.parse(field(record, columns[4])));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid Last Purchase Date (expected yyyy-MM-dd): " + e.getParsedString());
+        }
+    }
+
+    private static UserProvisioning.Request parseUserRequest(List<String> record, int[] columns) {
+        // Passwords are taken as they are; the service trims the username and role
+        String password = columns[1] < 0 || columns[1] >= record.size() ? "" : record.get(columns[1]);
+        return new UserProvisioning.Request(field(record, columns[0]), password, field(record, columns[2]));
+    }
+
+    // =========================================================
+    // REPORTS
+    // =========================================================
+
+    private int report(User user) throws UsageException, IOException {
+        String name = argument(1, "analytics");
+        if (!name.equals("analytics")) {
+            throw new UsageException("Unknown report: " + name);
+        }
+        AccessPolicy.permissionsFor(user).require(Permission.ANALYTICS_VIEW);
+
+        String outFile = options.get("out");
+        if (outFile == null) {
+            // Not closed: that would close standard output
+            writeAnalyticsReport(new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), false));
+            return EXIT_OK;
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(outFile), StandardCharsets.UTF_8))) {
+            writeAnalyticsReport(writer);
+        }
+        out.println("report\tanalytics\t" + outFile);
+        return EXIT_OK;
+    }
+
+    /**
+     * Writes the analytics as tab-separated sections, flushing after each one.
+     */
+    private void writeAnalyticsReport(PrintWriter writer) {
+        writer.println("# summary");
+        writer.printf(Locale.ROOT, "employees\t%d%n", service.countEmployees());
+        writer.printf(Locale.ROOT, "customers\t%d%n", service.countCustomers());
+        writer.printf(Locale.ROOT, "average_salary\t%.2f%n", service.getAverageSalary());
+        writer.printf(Locale.ROOT, "average_age\t%.2f%n", service.getAverageAge());
+        writer.flush();
+
+        writer.println("# employees_by_job_title");
+        writer.println("job_title\temployees\taverage_salary");
+        Map<String, Integer> counts = service.getEmployeeCountByJobTitle();
+        Map<String, Double> salaries = service.getAverageSalaryByJobTitle();
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(counts).entrySet()) {
+            writer.printf(Locale.ROOT, "%s\t%d\t%.2f%n", entry.getKey(), entry.getValue(),
+                    salaries.getOrDefault(entry.getKey(), 0.0));
+        }
+        writer.flush();
+
+        writer.println("# customers_by_membership_level");
+        writer.println("membership_level\tcustomers");
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(service.getCustomerCountByMembershipLevel()).entrySet()) {
+            writer.printf(Locale.ROOT, "%s\t%d%n", entry.getKey(), entry.getValue());
+        }
+        writer.flush();
+    }
+
+    // =========================================================
+    // MAINTENANCE
+    // =========================================================
+
+    private int maintenance(User user) throws UsageException, SQLException {
+        String job = argument(1, "optimize|integrity-check");
+        AccessPolicy.permissionsFor(user).require(Permission.MAINTENANCE);
+        SQLiteConnection database = SQLiteConnection.getInstance();
+
+        if (job.equals("optimize")) {
+            database.checkpointAndOptimize();
+            out.println("optimize\tok");
+            return EXIT_OK;
+        } else if (job.equals("integrity-check")) {
+            List<String> problems = database.quickCheck();
+            if (problems.isEmpty()) {
+                out.println("integrity-check\tok");
+                return EXIT_OK;
+            }
+            for (String problem : problems) {
+                out.println("integrity-check\t" + problem);
+            }
+            return EXIT_CHECK_FAILED;
+        }
+        throw new UsageException("Unknown maintenance job: " + job);
+    }
+
+    // =========================================================
+    // ARGUMENT HELPERS
+    // =========================================================
+
+    private String argument(int index, String description) throws UsageException {
+        if (index >= arguments.size()) {
+            throw new UsageException("Missing argument: " + description);
+        }
+        return arguments.get(index);
+    }
+
+    private int intOption(String name, int defaultValue) throws UsageException {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed <= 0) {
+                throw new NumberFormatException();
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new UsageException("--" + name + " must be a positive integer: " + value);
+        }
+    }
+}
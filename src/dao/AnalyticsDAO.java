@@ -0,0 +1,50 @@
+package dao;
+
+import java.util.Map;
+
+/**
+ * Data access for aggregate analytics that can be computed inside the persistence store.
+ * Backends that support it (e.g. SQL) return only the aggregated rows instead of every entity,
+ * so the service layer never transfers whole tables just to compute a count or an average.
+ */
+public interface AnalyticsDAO {
+
+    /**
+     * @return The average age across all employees and customers, or 0.0 if there are none.
+     */
+    double getAverageAge();
+
+    /**
+     * @return The average employee salary, or 0.0 if there are no employees.
+     */
+    double getAverageSalary();
+
+    /**
+     * @param level The membership level to count (case-insensitive, e.g. "Gold").
+     * @return The number of customers with that membership level.
+     */
+    long countMembershipLevel(String level);
+
+    /**
+     * @return A Map of job title to average salary.
+     */
+    Map<String, Double> getAverageSalaryByJobTitle();
+
+    /**
+     * @return A Map of job title to employee count.
+     */
+    Map<String, Integer> getEmployeeCountByJobTitle();
+
+    /**
+     * @return A Map of membership level to customer count.
+     */
+    Map<String, Integer> getCustomerCountByMembershipLevel();
+
+    /**
+     * Reads employee count and average salary by job title, customer count by membership level and
+     * the average age in one read transaction, so all four describe the same state of the data.
+     * @return The aggregates.
+     * @throws exception.DataAccessException if any of the queries fails (a partial snapshot is never returned).
+     */
+    AnalyticsSnapshot getSnapshot();
+}
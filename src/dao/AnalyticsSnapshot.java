@@ -0,0 +1,41 @@
+package dao;
+
+import java.util.Map;
+
+/**
+ * The four analytics aggregates read together from one consistent view of the store
+ * (see AnalyticsDAO.getSnapshot()), used to (re)build the materialized aggregates.
+ */
+public final class AnalyticsSnapshot {
+
+    private final Map<String, Integer> employeeCountByJobTitle;
+    private final Map<String, Double> averageSalaryByJobTitle;
+    private final Map<String, Integer> customerCountByMembershipLevel;
+    private final double averageAge;
+
+    public AnalyticsSnapshot(Map<String, Integer> employeeCountByJobTitle,
+                             Map<String, Double> averageSalaryByJobTitle,
+                             Map<String, Integer> customerCountByMembershipLevel,
+                             double averageAge) {
+        this.employeeCountByJobTitle = employeeCountByJobTitle;
+        this.averageSalaryByJobTitle = averageSalaryByJobTitle;
+        this.customerCountByMembershipLevel = customerCountByMembershipLevel;
+        this.averageAge = averageAge;
+    }
+
+    public Map<String, Integer> getEmployeeCountByJobTitle() {
+        return employeeCountByJobTitle;
+    }
+
+    public Map<String, Double> getAverageSalaryByJobTitle() {
+        return averageSalaryByJobTitle;
+    }
+
+    public Map<String, Integer> getCustomerCountByMembershipLevel() {
+        return customerCountByMembershipLevel;
+    }
+
+    public double getAverageAge() {
+        return averageAge;
+    }
+}
@@ -0,0 +1,278 @@
+package dao;
+
+import util.CustomExceptions.RecordNotFoundException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A read-through cache in front of any GenericDAO, keyed by entity ID.
+ * findById() is served from a size-bounded LRU map (with an optional time-to-live), and every
+ * write (save/update/delete and the bulk variants) invalidates the affected IDs, so the cache
+ * never serves data older than the last write made through it.
+ * Bulk reads (findAll, streamAll, findPage) pass straight through and do not fill the cache.
+ * @param <T> The type of the entity.
+ */
+public class CachingDAO<T> implements PageableDAO<T> {
+
+    private final GenericDAO<T> delegate;
+    private final Function<T, String> idExtractor;
+    private final int maxEntries;
+    private final long ttlNanos; // 0 = entries never expire
+
+    // Access-ordered LinkedHashMap = LRU. Guarded by 'this'.
+    private final LinkedHashMap<String, CacheEntry<T>> entries;
+
+    // Bumped on every write; a load that raced with a write is not cached (prevents stale fills).
+    private final AtomicLong writeEpoch = new AtomicLong();
+
+    // --- Statistics ---
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * @param delegate The DAO that owns the data.
+     * @param idExtractor Returns the ID of an entity (e.g. Employee::getId).
+     * @param maxEntries Maximum number of cached entities before the least recently used is evicted.
+     * @param ttl Time-to-live of a cached entity; 0 or less disables expiry.
+     * @param ttlUnit Unit of the ttl value.
+     */
+    public CachingDAO(GenericDAO<T> delegate, Function<T, String> idExtractor, int maxEntries, long ttl, TimeUnit ttlUnit) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.idExtractor = idExtractor;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl > 0 ? ttlUnit.toNanos(ttl) : 0;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<T>> eldest) {
+                if (size() > CachingDAO.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // =========================================================
+    // READS
+    // =========================================================
+
+    @Override
+    public T findById(String id) throws RecordNotFoundException {
+        synchronized (this) {
+            CacheEntry<T> entry = entries.get(id);
+            if (entry != null) {
+                if (ttlNanos == 0 || System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                entries.remove(id);
+                expirations.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long epochBeforeLoad = writeEpoch.get();
+        T value = delegate.findById(id);
+
+        // Not-found results are not cached, so a later save is visible immediately
+        if (value != null) {
+            synchronized (this) {
+                if (writeEpoch.get() == epochBeforeLoad) {
+                    entries.put(id, new CacheEntry<>(value, System.nanoTime()));
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<T> streamAll(int fetchSize) {
+        return delegate.streamAll(fetchSize);
+    }
+
+    @Override
+    public Page<T> findPage(String sortColumn, int pageSize, String continuationToken) {
+        return pageableDelegate().findPage(sortColumn, pageSize, continuationToken);
+    }
+
+    @Override
+    public Page<T> findPageAt(String sortColumn, long offset, int pageSize) {
+        return pageableDelegate().findPageAt(sortColumn, offset, pageSize);
+    }
+
+    @Override
+    public long count() {
+        return pageableDelegate().count();
+    }
+
+    private PageableDAO<T> pageableDelegate() {
+        if (!(delegate instanceof PageableDAO)) {
+            throw new UnsupportedOperationException("The underlying DAO does not support pagination.");
+        }
+        return (PageableDAO<T>) delegate;
+    }
+
+    // =========================================================
+    // WRITES (delegate, then invalidate)
+    // Invalidating after the write (even if it fails) also discards any load that
+    // started before the write finished, because it bumps the write epoch.
+    // =========================================================
+
+    @Override
+    public void save(T entity) {
+        try {
+            delegate.save(entity);
+        } finally {
+            invalidate(idExtractor.apply(entity));
+        }
+    }
+
+    @Override
+    public boolean update(T entity) {
+        try {
+            return delegate.update(entity);
+        } finally {
+            invalidate(idExtractor.apply(entity));
+        }
+    }
+
+    @Override
+    public boolean delete(String id) {
+        try {
+            return delegate.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public int saveAll(Collection<T> entities, int batchSize) {
+        try {
+            return delegate.saveAll(entities, batchSize);
+        } finally {
+            invalidateEntities(entities);
+        }
+    }
+
+    @Override
+    public int updateAll(Collection<T> entities, int batchSize) {
+        try {
+            return delegate.updateAll(entities, batchSize);
+        } finally {
+            invalidateEntities(entities);
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<String> ids, int batchSize) {
+        try {
+            return delegate.deleteAll(ids, batchSize);
+        } finally {
+            synchronized (this) {
+                writeEpoch.incrementAndGet();
+                for (String id : ids) {
+                    entries.remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a single ID from the cache.
+     */
+    public synchronized void invalidate(String id) {
+        writeEpoch.incrementAndGet();
+        entries.remove(id);
+    }
+
+    /**
+     * Empties the cache (e.g. after the table was modified outside this DAO).
+     */
+    public synchronized void invalidateAll() {
+        writeEpoch.incrementAndGet();
+        entries.clear();
+    }
+
+    private synchronized void invalidateEntities(Collection<T> entities) {
+        writeEpoch.incrementAndGet();
+        for (T entity : entities) {
+            entries.remove(idExtractor.apply(entity));
+        }
+    }
+
+    // =========================================================
+    // STATISTICS (for tuning capacity against the working set)
+    // =========================================================
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return The fraction of findById calls served from the cache (0.0 - 1.0).
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * @return A one-line summary of the cache counters.
+     */
+    public String getStatistics() {
+        return String.format("%d/%d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions, %d expirations",
+                size(), maxEntries, getHitCount(), getMissCount(), getHitRate() * 100, getEvictionCount(), getExpirationCount());
+    }
+
+    /**
+     * A cached value and the time it was loaded (for TTL checks).
+     */
+    private static final class CacheEntry<T> {
+        private final T value;
+        private final long loadedAt;
+
+        private CacheEntry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
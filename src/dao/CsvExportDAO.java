@@ -0,0 +1,29 @@
+package dao;
+
+import java.io.IOException;
+
+/**
+ * Data access for bulk CSV exports that stream straight from the persistence store to a file.
+ * Implementations write each row as it is read, so an export runs in a fixed amount of memory
+ * regardless of the table size.
+ */
+public interface CsvExportDAO {
+
+    /**
+     * Exports every employee as (ID, Name, Job Title, Age, Salary).
+     * @param filePath The full path to the output CSV file.
+     * @param header The header row.
+     * @return The number of data rows written.
+     * @throws IOException If the file cannot be written or the data cannot be read.
+     */
+    long exportEmployeesToCsv(String filePath, String[] header) throws IOException;
+
+    /**
+     * Exports every customer as (ID, Name, Age, Membership Level, Last Purchase Date).
+     * @param filePath The full path to the output CSV file.
+     * @param header The header row.
+     * @return The number of data rows written.
+     * @throws IOException If the file cannot be written or the data cannot be read.
+     */
+    long exportCustomersToCsv(String filePath, String[] header) throws IOException;
+}
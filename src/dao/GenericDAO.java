@@ -1,6 +1,8 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import util.CustomExceptions.RecordNotFoundException; // <--- NEW IMPORT
 
 /**
@@ -11,6 +13,16 @@ import util.CustomExceptions.RecordNotFoundException; // <--- NEW IMPORT
  */
 public interface GenericDAO<T> {
 
+    /**
+     * Default number of rows sent to the database per JDBC batch in the bulk operations.
+     */
+    int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Default number of rows fetched per round trip by the streaming reads.
+     */
+    int DEFAULT_FETCH_SIZE = 1000;
+
     /**
      * Finds an entity by its unique ID.
      * @param id The ID of the entity to find.
@@ -25,22 +37,103 @@ public interface GenericDAO<T> {
      */
     List<T> findAll();
 
+    /**
+     * Streams all entities of type T, mapping rows lazily as the stream is consumed,
+     * so memory stays flat regardless of table size. The default materializes findAll();
+     * database-backed DAOs override it with a cursor-backed stream.
+     * IMPORTANT: The stream holds database resources and must be closed (try-with-resources).
+     * @param fetchSize Hint for the number of rows fetched from the store at a time.
+     * @return A stream of all entities.
+     */
+    default Stream<T> streamAll(int fetchSize) {
+        return findAll().stream();
+    }
+
+    default Stream<T> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
     /**
      * Saves a new entity to the persistence store (CREATE operation).
      * @param entity The entity object to save.
+     * @throws exception.DuplicateKeyException if an entity with the same ID already exists.
+     * @throws exception.DataAccessException if the entity could not be written.
      */
     void save(T entity);
 
     /**
      * Updates an existing entity in the persistence store (UPDATE operation).
      * @param entity The entity object with updated data.
+     * @return True if the entity was updated, false if no entity has its ID.
+     * @throws exception.DataAccessException if the entity could not be written.
      */
-    void update(T entity);
+    boolean update(T entity);
 
     /**
      * Deletes an entity from the persistence store (DELETE operation).
      * @param id The ID of the entity to delete.
-     * @return True if deletion was successful, false otherwise.
+     * @return True if deletion was successful, false if no entity has that ID.
+     * @throws exception.DataAccessException if the delete could not be executed.
      */
     boolean delete(String id);
-}
\ No newline at end of file
+
+    // =========================================================
+    // BULK OPERATIONS
+    // The defaults simply loop over the single-entity methods; database-backed
+    // DAOs override them to use JDBC batching inside one transaction.
+    // =========================================================
+
+    /**
+     * Saves many new entities in one operation (bulk CREATE).
+     * @param entities The entities to save.
+     * @param batchSize Number of rows sent to the store per batch (chunk size).
+     * @return The number of rows written.
+     */
+    default int saveAll(Collection<T> entities, int batchSize) {
+        for (T entity : entities) {
+            save(entity);
+        }
+        return entities.size();
+    }
+
+    /**
+     * Updates many existing entities in one operation (bulk UPDATE).
+     * @param entities The entities with updated data.
+     * @param batchSize Number of rows sent to the store per batch (chunk size).
+     * @return The number of rows updated.
+     */
+    default int updateAll(Collection<T> entities, int batchSize) {
+        for (T entity : entities) {
+            update(entity);
+        }
+        return entities.size();
+    }
+
+    /**
+     * Deletes many entities by ID in one operation (bulk DELETE).
+     * @param ids The IDs of the entities to delete.
+     * @param batchSize Number of rows sent to the store per batch (chunk size).
+     * @return The number of rows deleted.
+     */
+    default int deleteAll(Collection<String> ids, int batchSize) {
+        int deleted = 0;
+        for (String id : ids) {
+            if (delete(id)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    default int saveAll(Collection<T> entities) {
+        return saveAll(entities, DEFAULT_BATCH_SIZE);
+    }
+
+    default int updateAll(Collection<T> entities) {
+        return updateAll(entities, DEFAULT_BATCH_SIZE);
+    }
+
+    default int deleteAll(Collection<String> ids) {
+        return deleteAll(ids, DEFAULT_BATCH_SIZE);
+    }
+}
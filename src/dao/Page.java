@@ -0,0 +1,42 @@
+package dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of results from a keyset (seek) paginated query.
+ * The continuation token is opaque to callers: pass it back unchanged to fetch the next page.
+ * @param <T> The type of the entity on the page.
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final String continuationToken;
+
+    public Page(List<T> items, String continuationToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * @return The entities on this page, in sort order.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The token for the next page, or null if this is the last page.
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public boolean hasNext() {
+        return continuationToken != null;
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
@@ -0,0 +1,37 @@
+package dao;
+
+/**
+ * Extends GenericDAO with keyset (seek) pagination.
+ * Each page is located by seeking past the last row of the previous page on an indexed
+ * (sortColumn, id) key instead of using OFFSET, so fetching page 1 or page 10,000 costs the same.
+ * @param <T> The type of the entity.
+ */
+public interface PageableDAO<T> extends GenericDAO<T> {
+
+    /**
+     * Fetches one page of entities ordered by the given column (ties broken by id).
+     * @param sortColumn The column to order by; must be one of the DAO's sortable columns.
+     * @param pageSize Maximum number of entities on the page.
+     * @param continuationToken The token from the previous page, or null for the first page.
+     * @return The page, with a continuation token if more rows follow.
+     * @throws IllegalArgumentException if the column is not sortable, the page size is not positive,
+     *                                  or the token is invalid or belongs to a different sort column.
+     */
+    Page<T> findPage(String sortColumn, int pageSize, String continuationToken);
+
+    /**
+     * Fetches the page that starts at an absolute row position in the given order.
+     * Unlike findPage this has to skip offset rows, so use it only for random access
+     * (e.g. jumping to the middle of a table); continue from the returned token with findPage.
+     * @param sortColumn The column to order by; must be one of the DAO's sortable columns.
+     * @param offset Zero-based position of the first entity on the page.
+     * @param pageSize Maximum number of entities on the page.
+     * @return The page, with a continuation token if more rows follow.
+     */
+    Page<T> findPageAt(String sortColumn, long offset, int pageSize);
+
+    /**
+     * @return The total number of entities.
+     */
+    long count();
+}
@@ -4,6 +4,10 @@ import model.User;
 // Import the wrapper class that contains the exception
 import util.CustomExceptions;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Extends GenericDAO to provide specific data access methods for the User entity.
  */
@@ -16,4 +20,24 @@ public interface UserDAO extends GenericDAO<User> {
      * @throws CustomExceptions.RecordNotFoundException if no user is found.
      */
     User findByUsername(String username) throws CustomExceptions.RecordNotFoundException;
+
+    /**
+     * @param username The username to look up.
+     * @return true if a user with that username exists.
+     */
+    boolean checkIfUsernameExists(String username);
+
+    /**
+     * @param usernames The usernames to look up.
+     * @return The subset of usernames that already exist.
+     */
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    /**
+     * Inserts many users in one transaction, skipping usernames that already exist.
+     * @param users The users to insert.
+     * @param batchSize Number of rows per JDBC batch.
+     * @return For each user, true if it was inserted, false if the username already existed.
+     */
+    boolean[] saveAllIfAbsent(List<User> users, int batchSize);
 }
\ No newline at end of file
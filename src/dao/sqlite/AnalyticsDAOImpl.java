@@ -0,0 +1,181 @@
+package dao.sqlite;
+
+import dao.AnalyticsDAO;
+import dao.AnalyticsSnapshot;
+import exception.DataAccessException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQLite implementation of AnalyticsDAO.
+ * Pushes the analytics down to the database as GROUP BY / AVG / COUNT queries, so only
+ * the aggregated rows (one per job title or membership level) cross the JDBC boundary.
+ */
+public class AnalyticsDAOImpl implements AnalyticsDAO {
+
+    // TOTAL() returns 0.0 on an empty table (SUM() would return NULL)
+    private static final String AVERAGE_AGE_SQL = "SELECT (SELECT TOTAL(age) FROM Employees) + (SELECT TOTAL(age) FROM Customers), " +
+            "(SELECT COUNT(*) FROM Employees) + (SELECT COUNT(*) FROM Customers)";
+    private static final String AVERAGE_SALARY_BY_JOB_TITLE_SQL = "SELECT jobTitle, AVG(salaryCents) / 100.0 FROM Employees GROUP BY jobTitle";
+    private static final String EMPLOYEE_COUNT_BY_JOB_TITLE_SQL = "SELECT jobTitle, COUNT(*) FROM Employees GROUP BY jobTitle";
+    private static final String CUSTOMER_COUNT_BY_MEMBERSHIP_LEVEL_SQL = "SELECT membershipLevel, COUNT(*) FROM Customers GROUP BY membershipLevel";
+
+    private final SQLiteConnection database;
+
+    public AnalyticsDAOImpl() {
+        this.database = SQLiteConnection.getInstance();
+    }
+
+    @Override
+    public double getAverageAge() {
+        try (PooledConnection lease = database.acquireReader()) {
+            return queryAverageAge(lease.getConnection());
+        } catch (SQLException e) {
+            System.err.println("Error calculating average age: " + e.getMessage());
+        }
+        return 0.0;
+    }
+
+    @Override
+    public double getAverageSalary() {
+        String sql = "SELECT COALESCE(AVG(salaryCents) / 100.0, 0.0) FROM Employees";
+
+        try (PooledConnection lease = database.acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getDouble(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error calculating average salary: " + e.getMessage());
+        }
+        return 0.0;
+    }
+
+    @Override
+    public long countMembershipLevel(String level) {
+        if (level == null) {
+            return 0;
+        }
+        String sql = "SELECT COUNT(*) FROM Customers WHERE membershipLevel = ? COLLATE NOCASE";
+
+        try (PooledConnection lease = database.acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, level);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting membership level: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public Map<String, Double> getAverageSalaryByJobTitle() {
+        try (PooledConnection lease = database.acquireReader()) {
+            return queryAverageSalaryByJobTitle(lease.getConnection());
+        } catch (SQLException e) {
+            System.err.println("Error calculating average salary by job title: " + e.getMessage());
+        }
+        return new HashMap<>();
+    }
+
+    @Override
+    public Map<String, Integer> getEmployeeCountByJobTitle() {
+        return countGroupedBy(EMPLOYEE_COUNT_BY_JOB_TITLE_SQL, "employee count by job title");
+    }
+
+    @Override
+    public Map<String, Integer> getCustomerCountByMembershipLevel() {
+        return countGroupedBy(CUSTOMER_COUNT_BY_MEMBERSHIP_LEVEL_SQL, "customer count by membership level");
+    }
+
+    /**
+     * Runs the four queries on one reader connection inside one transaction. In WAL mode the
+     * transaction reads from a single snapshot of the database, so a write committed between two
+     * of the queries is either seen by all of them or by none.
+     */
+    @Override
+    public AnalyticsSnapshot getSnapshot() {
+        try (PooledConnection lease = database.acquireReader()) {
+            Connection conn = lease.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                AnalyticsSnapshot snapshot = new AnalyticsSnapshot(
+                        queryCountGroupedBy(conn, EMPLOYEE_COUNT_BY_JOB_TITLE_SQL),
+                        queryAverageSalaryByJobTitle(conn),
+                        queryCountGroupedBy(conn, CUSTOMER_COUNT_BY_MEMBERSHIP_LEVEL_SQL),
+                        queryAverageAge(conn));
+                conn.commit();
+                return snapshot;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading analytics snapshot: " + e.getMessage());
+            throw new DataAccessException("Error reading analytics snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Helper method to run a two-column (key, count) GROUP BY query into a Map.
+     */
+    private Map<String, Integer> countGroupedBy(String sql, String description) {
+        try (PooledConnection lease = database.acquireReader()) {
+            return queryCountGroupedBy(lease.getConnection(), sql);
+        } catch (SQLException e) {
+            System.err.println("Error calculating " + description + ": " + e.getMessage());
+        }
+        return new HashMap<>();
+    }
+
+    // =========================================================
+    // QUERIES (shared by the single-metric methods and getSnapshot)
+    // =========================================================
+
+    private static double queryAverageAge(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(AVERAGE_AGE_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                long count = rs.getLong(2);
+                return count == 0 ? 0.0 : rs.getDouble(1) / count;
+            }
+        }
+        return 0.0;
+    }
+
+    private static Map<String, Double> queryAverageSalaryByJobTitle(Connection conn) throws SQLException {
+        Map<String, Double> results = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(AVERAGE_SALARY_BY_JOB_TITLE_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                results.put(rs.getString(1), rs.getDouble(2));
+            }
+        }
+        return results;
+    }
+
+    private static Map<String, Integer> queryCountGroupedBy(Connection conn, String sql) throws SQLException {
+        Map<String, Integer> results = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                results.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,118 @@
+package dao.sqlite;
+
+import exception.DataAccessException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+
+/**
+ * Shared helper for the bulk (saveAll/updateAll/deleteAll) operations of the SQLite DAOs.
+ * Runs one prepared statement for every item using JDBC batching, flushing every
+ * batchSize rows, and wraps the whole collection in a single transaction so a bulk load
+ * costs one commit instead of one per row.
+ */
+final class BatchExecutor {
+
+    /**
+     * Binds the parameters of one item to the prepared statement.
+     * @param <T> The type of the item being written.
+     */
+    @FunctionalInterface
+    interface StatementBinder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+
+    private BatchExecutor() {
+    }
+
+    /**
+     * Executes sql once per item in a single transaction on the writer connection.
+     * If the calling thread is already inside a transaction on the writer, the rows join it
+     * and the outer caller stays responsible for the commit.
+     * @param sql The parameterized INSERT/UPDATE/DELETE statement.
+     * @param items The items to write.
+     * @param batchSize Number of rows per JDBC batch (chunk size), must be positive.
+     * @param binder Binds one item's values to the statement.
+     * @return The total number of rows affected.
+     * @throws DataAccessException if any batch fails; the whole transaction is rolled back.
+     */
+    static <T> int execute(String sql, Collection<? extends T> items, int batchSize, StatementBinder<T> binder) {
+        int total = 0;
+        for (int count : executeEach(sql, items, batchSize, binder)) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Like execute, but reports the rows affected by each item, e.g. 0 for a row skipped by INSERT OR IGNORE.
+     * @return One count per item, in iteration order.
+     * @throws DataAccessException if any batch fails; the whole transaction is rolled back.
+     */
+    static <T> int[] executeEach(String sql, Collection<? extends T> items, int batchSize, StatementBinder<T> binder) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        if (items == null || items.isEmpty()) {
+            return new int[0];
+        }
+
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireWriter()) {
+            Connection conn = lease.getConnection();
+            boolean ownsTransaction = conn.getAutoCommit();
+            if (ownsTransaction) {
+                conn.setAutoCommit(false);
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int[] affected = new int[items.size()];
+                int written = 0;
+                int pending = 0;
+                for (T item : items) {
+                    binder.bind(pstmt, item);
+                    pstmt.addBatch();
+                    if (++pending == batchSize) {
+                        written = copyUpdateCounts(pstmt.executeBatch(), affected, written);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    copyUpdateCounts(pstmt.executeBatch(), affected, written);
+                }
+
+                if (ownsTransaction) {
+                    conn.commit();
+                }
+                return affected;
+
+            } catch (SQLException e) {
+                if (ownsTransaction) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (ownsTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error executing batch (" + items.size() + " rows): " + e.getMessage());
+            throw SQLiteErrors.translate("Bulk operation failed and was rolled back", e);
+        }
+    }
+
+    /**
+     * Copies one batch's update counts into affected, starting at offset.
+     * @return The offset for the next batch.
+     */
+    private static int copyUpdateCounts(int[] counts, int[] affected, int offset) {
+        for (int count : counts) {
+            // SUCCESS_NO_INFO means the row was processed but the driver did not report a count
+            affected[offset++] = (count == Statement.SUCCESS_NO_INFO) ? 1 : Math.max(count, 0);
+        }
+        return offset;
+    }
+}
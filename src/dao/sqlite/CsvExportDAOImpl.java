@@ -0,0 +1,86 @@
+package dao.sqlite;
+
+import dao.CsvExportDAO;
+import dao.GenericDAO;
+import util.CsvChannelWriter;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * SQLite implementation of CsvExportDAO.
+ * Reads the table with a forward-only cursor on a pooled reader connection and writes each
+ * column value straight into a CsvChannelWriter, without building entities or row Strings.
+ * Salaries (integer cents) and dates (epoch days) are formatted by the writer without allocation.
+ */
+public class CsvExportDAOImpl implements CsvExportDAO {
+
+    private static final String EMPLOYEE_SQL = "SELECT id, name, jobTitle, age, salaryCents FROM Employees";
+    private static final String CUSTOMER_SQL = "SELECT id, name, age, membershipLevel, lastPurchaseDay FROM Customers";
+
+    private final SQLiteConnection database;
+
+    public CsvExportDAOImpl() {
+        this.database = SQLiteConnection.getInstance();
+    }
+
+    @Override
+    public long exportEmployeesToCsv(String filePath, String[] header) throws IOException {
+        try (PooledConnection lease = database.acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(EMPLOYEE_SQL);
+             CsvChannelWriter writer = new CsvChannelWriter(Paths.get(filePath))) {
+            pstmt.setFetchSize(GenericDAO.DEFAULT_FETCH_SIZE);
+            writer.writeRow(header);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    writer.writeField(rs.getString(1));
+                    writer.writeField(rs.getString(2));
+                    writer.writeField(rs.getString(3));
+                    writer.writeField(rs.getLong(4));
+                    writer.writeCents(rs.getLong(5));
+                    writer.endRow();
+                }
+            }
+            return finish(writer, filePath);
+        } catch (SQLException e) {
+            throw new IOException("Error reading employees for export: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long exportCustomersToCsv(String filePath, String[] header) throws IOException {
+        try (PooledConnection lease = database.acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(CUSTOMER_SQL);
+             CsvChannelWriter writer = new CsvChannelWriter(Paths.get(filePath))) {
+            pstmt.setFetchSize(GenericDAO.DEFAULT_FETCH_SIZE);
+            writer.writeRow(header);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    writer.writeField(rs.getString(1));
+                    writer.writeField(rs.getString(2));
+                    writer.writeField(rs.getLong(3));
+                    writer.writeField(rs.getString(4));
+                    writer.writeEpochDay(rs.getLong(5));
+                    writer.endRow();
+                }
+            }
+            return finish(writer, filePath);
+        } catch (SQLException e) {
+            throw new IOException("Error reading customers for export: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Helper method to log the export and return the number of data rows (excluding the header).
+     */
+    private long finish(CsvChannelWriter writer, String filePath) {
+        long dataRows = writer.getRowCount() - 1;
+        System.out.println("Data successfully exported to: " + filePath + " (" + dataRows + " rows)");
+        return dataRows;
+    }
+}
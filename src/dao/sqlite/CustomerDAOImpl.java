@@ -1,44 +1,54 @@
 package dao.sqlite;
 
-import dao.GenericDAO;
+import dao.Page;
+import dao.PageableDAO;
 import model.Customer;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
- * Concrete implementation of the GenericDAO interface for the Customer entity.
+ * Concrete implementation of the GenericDAO (and PageableDAO) interface for the Customer entity.
  * Handles all database operations (CRUD) for Customers using SQLite.
  */
-public class CustomerDAOImpl implements GenericDAO<Customer> {
+public class CustomerDAOImpl implements PageableDAO<Customer> {
 
-    private Connection connection;
+    private static final String INSERT_SQL = "INSERT INTO Customers (id, name, age, membershipLevel, lastPurchaseDay) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE Customers SET name = ?, age = ?, membershipLevel = ?, lastPurchaseDay = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM Customers WHERE id = ?";
+
+    // Columns with a supporting (column, id) index, usable for keyset pagination
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("id", "name", "membershipLevel");
+
+    // Mapped rows share one String per membership level
+    private static final ValueDictionary MEMBERSHIP_LEVELS = new ValueDictionary("Customers.membershipLevel", 1_024);
+
+    private final SQLiteConnection database;
 
     public CustomerDAOImpl() {
-        // Get the single active connection instance
-        this.connection = SQLiteConnection.getInstance().getConnection();
+        // Connections are borrowed per operation from the pooled connection manager
+        this.database = SQLiteConnection.getInstance();
     }
 
     // --- CREATE Operation (Save) ---
     @Override
     public void save(Customer customer) {
-        String sql = "INSERT INTO Customers (id, name, age, membershipLevel, lastPurchaseDate) VALUES (?, ?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, customer.getId());
-            pstmt.setString(2, customer.getName());
-            pstmt.setInt(3, customer.getAge());
-            pstmt.setString(4, customer.getMembershipLevel());
+        String sql = INSERT_SQL;
 
-            // Convert LocalDate to String (ISO-8601 format) for storage in TEXT column
-            pstmt.setString(5, customer.getLastPurchaseDate().toString());
+        try (PooledConnection lease = database.acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
+            bindInsert(pstmt, customer);
 
             pstmt.executeUpdate();
             System.out.println("Customer saved successfully: " + customer.getName());
 
         } catch (SQLException e) {
             System.err.println("Error saving customer to DB: " + e.getMessage());
+            throw SQLiteErrors.translate("Error saving customer " + customer.getId(), e);
         }
     }
 
@@ -48,7 +58,8 @@ public class CustomerDAOImpl implements GenericDAO<Customer> {
         String sql = "SELECT * FROM Customers WHERE id = ?";
         Customer customer = null;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection lease = database.acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, id);
 
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -68,7 +79,8 @@ public class CustomerDAOImpl implements GenericDAO<Customer> {
         String sql = "SELECT * FROM Customers";
         List<Customer> customers = new ArrayList<>();
 
-        try (Statement stmt = connection.createStatement();
+        try (PooledConnection lease = database.acquireReader();
+             Statement stmt = lease.getConnection().createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -80,17 +92,37 @@ public class CustomerDAOImpl implements GenericDAO<Customer> {
         return customers;
     }
 
+    // --- READ Operation (Streaming cursor) ---
+    @Override
+    public Stream<Customer> streamAll(int fetchSize) {
+        return ResultSetStream.open("SELECT * FROM Customers", fetchSize, this::mapResultSetToCustomer);
+    }
+
+    // --- READ Operation (Keyset pagination) ---
+    @Override
+    public Page<Customer> findPage(String sortColumn, int pageSize, String continuationToken) {
+        return KeysetPager.fetch("Customers", SORTABLE_COLUMNS, sortColumn, pageSize, continuationToken, this::mapResultSetToCustomer);
+    }
+
+    @Override
+    public Page<Customer> findPageAt(String sortColumn, long offset, int pageSize) {
+        return KeysetPager.fetchAt("Customers", SORTABLE_COLUMNS, sortColumn, offset, pageSize, this::mapResultSetToCustomer);
+    }
+
+    // --- READ Operation (Row count) ---
+    @Override
+    public long count() {
+        return KeysetPager.count("Customers");
+    }
+
     // --- UPDATE Operation ---
     @Override
-    public void update(Customer customer) {
-        String sql = "UPDATE Customers SET name = ?, age = ?, membershipLevel = ?, lastPurchaseDate = ? WHERE id = ?";
+    public boolean update(Customer customer) {
+        String sql = UPDATE_SQL;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, customer.getName());
-            pstmt.setInt(2, customer.getAge());
-            pstmt.setString(3, customer.getMembershipLevel());
-            pstmt.setString(4, customer.getLastPurchaseDate().toString());
-            pstmt.setString(5, customer.getId());
+        try (PooledConnection lease = database.acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
+            bindUpdate(pstmt, customer);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -98,18 +130,21 @@ public class CustomerDAOImpl implements GenericDAO<Customer> {
             } else {
                 System.out.println("Customer updated successfully: " + customer.getName());
             }
+            return affectedRows > 0;
 
         } catch (SQLException e) {
             System.err.println("Error updating customer: " + e.getMessage());
+            throw SQLiteErrors.translate("Error updating customer " + customer.getId(), e);
         }
     }
 
     // --- DELETE Operation ---
     @Override
     public boolean delete(String id) {
-        String sql = "DELETE FROM Customers WHERE id = ?";
+        String sql = DELETE_SQL;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection lease = database.acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, id);
 
             int affectedRows = pstmt.executeUpdate();
@@ -117,10 +152,48 @@ public class CustomerDAOImpl implements GenericDAO<Customer> {
 
         } catch (SQLException e) {
             System.err.println("Error deleting customer: " + e.getMessage());
-            return false;
+            throw SQLiteErrors.translate("Error deleting customer " + id, e);
         }
     }
 
+    // --- BULK Operations (JDBC batching, one transaction) ---
+    @Override
+    public int saveAll(Collection<Customer> customers, int batchSize) {
+        int saved = BatchExecutor.execute(INSERT_SQL, customers, batchSize, this::bindInsert);
+        System.out.println("Bulk saved " + saved + " customers.");
+        return saved;
+    }
+
+    @Override
+    public int updateAll(Collection<Customer> customers, int batchSize) {
+        int updated = BatchExecutor.execute(UPDATE_SQL, customers, batchSize, this::bindUpdate);
+        System.out.println("Bulk updated " + updated + " customers.");
+        return updated;
+    }
+
+    @Override
+    public int deleteAll(Collection<String> ids, int batchSize) {
+        return BatchExecutor.execute(DELETE_SQL, ids, batchSize, (pstmt, id) -> pstmt.setString(1, id));
+    }
+
+    private void bindInsert(PreparedStatement pstmt, Customer customer) throws SQLException {
+        pstmt.setString(1, customer.getId());
+        pstmt.setString(2, customer.getName());
+        pstmt.setInt(3, customer.getAge());
+        pstmt.setString(4, customer.getMembershipLevel());
+
+        // Dates are stored as epoch days in an INTEGER column (schema version 1)
+        pstmt.setLong(5, customer.getLastPurchaseDate().toEpochDay());
+    }
+
+    private void bindUpdate(PreparedStatement pstmt, Customer customer) throws SQLException {
+        pstmt.setString(1, customer.getName());
+        pstmt.setInt(2, customer.getAge());
+        pstmt.setString(3, customer.getMembershipLevel());
+        pstmt.setLong(4, customer.getLastPurchaseDate().toEpochDay());
+        pstmt.setString(5, customer.getId());
+    }
+
     /**
      * Helper method to convert a database row (ResultSet) into a Java Customer object.
      * @param rs The ResultSet object.
@@ -128,14 +201,14 @@ public class CustomerDAOImpl implements GenericDAO<Customer> {
      * @throws SQLException If a column access error occurs.
      */
     private Customer mapResultSetToCustomer(ResultSet rs) throws SQLException {
-        // Convert the TEXT (ISO-8601 string) back to a LocalDate object
-        LocalDate purchaseDate = LocalDate.parse(rs.getString("lastPurchaseDate"));
+        // The INTEGER epoch day converts to a LocalDate without parsing
+        LocalDate purchaseDate = LocalDate.ofEpochDay(rs.getLong("lastPurchaseDay"));
 
         return new Customer(
                 rs.getString("id"),
                 rs.getString("name"),
                 rs.getInt("age"),
-                rs.getString("membershipLevel"),
+                MEMBERSHIP_LEVELS.intern(rs.getString("membershipLevel")),
                 purchaseDate
         );
     }
@@ -1,43 +1,54 @@
 package dao.sqlite;
 
-import dao.GenericDAO;
+import dao.Page;
+import dao.PageableDAO;
 import model.Employee;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
- * Concrete implementation of the GenericDAO interface for the Employee entity.
+ * Concrete implementation of the GenericDAO (and PageableDAO) interface for the Employee entity.
  * Handles all database operations (CRUD) for Employees using SQLite.
  */
-public class EmployeeDAOImpl implements GenericDAO<Employee> {
+public class EmployeeDAOImpl implements PageableDAO<Employee> {
 
-    private Connection connection;
+    private static final String INSERT_SQL = "INSERT INTO Employees (id, name, age, salaryCents, jobTitle) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE Employees SET name = ?, age = ?, salaryCents = ?, jobTitle = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM Employees WHERE id = ?";
+
+    // Columns with a supporting (column, id) index, usable for keyset pagination
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("id", "name", "jobTitle");
+
+    // Mapped rows share one String per job title
+    private static final ValueDictionary JOB_TITLES = new ValueDictionary("Employees.jobTitle", 4_096);
+
+    private final SQLiteConnection database;
 
     public EmployeeDAOImpl() {
-        // Get the single active connection instance
-        this.connection = SQLiteConnection.getInstance().getConnection();
+        // Connections are borrowed per operation from the pooled connection manager
+        this.database = SQLiteConnection.getInstance();
     }
 
     // --- CREATE Operation (Save) ---
     @Override
     public void save(Employee employee) {
-        String sql = "INSERT INTO Employees (id, name, age, salary, jobTitle) VALUES (?, ?, ?, ?, ?)";
+        String sql = INSERT_SQL;
 
         // Use try-with-resources to ensure PreparedStatement is closed
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, employee.getId());
-            pstmt.setString(2, employee.getName());
-            pstmt.setInt(3, employee.getAge());
-            pstmt.setDouble(4, employee.getSalary());
-            pstmt.setString(5, employee.getJobTitle());
+        try (PooledConnection lease = database.acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
+            bindInsert(pstmt, employee);
 
             pstmt.executeUpdate();
             System.out.println("Employee saved successfully: " + employee.getName());
 
         } catch (SQLException e) {
             System.err.println("Error saving employee to DB: " + e.getMessage());
-            // You should throw a checked or unchecked exception here for proper handling
+            throw SQLiteErrors.translate("Error saving employee " + employee.getId(), e);
         }
     }
 
@@ -47,7 +58,8 @@ public class EmployeeDAOImpl implements GenericDAO<Employee> {
         String sql = "SELECT * FROM Employees WHERE id = ?";
         Employee employee = null;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection lease = database.acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, id);
 
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -68,7 +80,8 @@ public class EmployeeDAOImpl implements GenericDAO<Employee> {
         String sql = "SELECT * FROM Employees";
         List<Employee> employees = new ArrayList<>();
 
-        try (Statement stmt = connection.createStatement();
+        try (PooledConnection lease = database.acquireReader();
+             Statement stmt = lease.getConnection().createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -80,17 +93,37 @@ public class EmployeeDAOImpl implements GenericDAO<Employee> {
         return employees;
     }
 
+    // --- READ Operation (Streaming cursor) ---
+    @Override
+    public Stream<Employee> streamAll(int fetchSize) {
+        return ResultSetStream.open("SELECT * FROM Employees", fetchSize, this::mapResultSetToEmployee);
+    }
+
+    // --- READ Operation (Keyset pagination) ---
+    @Override
+    public Page<Employee> findPage(String sortColumn, int pageSize, String continuationToken) {
+        return KeysetPager.fetch("Employees", SORTABLE_COLUMNS, sortColumn, pageSize, continuationToken, this::mapResultSetToEmployee);
+    }
+
+    @Override
+    public Page<Employee> findPageAt(String sortColumn, long offset, int pageSize) {
+        return KeysetPager.fetchAt("Employees", SORTABLE_COLUMNS, sortColumn, offset, pageSize, this::mapResultSetToEmployee);
+    }
+
+    // --- READ Operation (Row count) ---
+    @Override
+    public long count() {
+        return KeysetPager.count("Employees");
+    }
+
     // --- UPDATE Operation ---
     @Override
-    public void update(Employee employee) {
-        String sql = "UPDATE Employees SET name = ?, age = ?, salary = ?, jobTitle = ? WHERE id = ?";
+    public boolean update(Employee employee) {
+        String sql = UPDATE_SQL;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, employee.getName());
-            pstmt.setInt(2, employee.getAge());
-            pstmt.setDouble(3, employee.getSalary());
-            pstmt.setString(4, employee.getJobTitle());
-            pstmt.setString(5, employee.getId()); // ID is used in the WHERE clause
+        try (PooledConnection lease = database.acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
+            bindUpdate(pstmt, employee);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -98,18 +131,21 @@ public class EmployeeDAOImpl implements GenericDAO<Employee> {
             } else {
                 System.out.println("Employee updated successfully: " + employee.getName());
             }
+            return affectedRows > 0;
 
         } catch (SQLException e) {
             System.err.println("Error updating employee: " + e.getMessage());
+            throw SQLiteErrors.translate("Error updating employee " + employee.getId(), e);
         }
     }
 
     // --- DELETE Operation ---
     @Override
     public boolean delete(String id) {
-        String sql = "DELETE FROM Employees WHERE id = ?";
+        String sql = DELETE_SQL;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PooledConnection lease = database.acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, id);
 
             int affectedRows = pstmt.executeUpdate();
@@ -117,10 +153,53 @@ public class EmployeeDAOImpl implements GenericDAO<Employee> {
 
         } catch (SQLException e) {
             System.err.println("Error deleting employee: " + e.getMessage());
-            return false;
+            throw SQLiteErrors.translate("Error deleting employee " + id, e);
         }
     }
 
+    // --- BULK Operations (JDBC batching, one transaction) ---
+    @Override
+    public int saveAll(Collection<Employee> employees, int batchSize) {
+        int saved = BatchExecutor.execute(INSERT_SQL, employees, batchSize, this::bindInsert);
+        System.out.println("Bulk saved " + saved + " employees.");
+        return saved;
+    }
+
+    @Override
+    public int updateAll(Collection<Employee> employees, int batchSize) {
+        int updated = BatchExecutor.execute(UPDATE_SQL, employees, batchSize, this::bindUpdate);
+        System.out.println("Bulk updated " + updated + " employees.");
+        return updated;
+    }
+
+    @Override
+    public int deleteAll(Collection<String> ids, int batchSize) {
+        return BatchExecutor.execute(DELETE_SQL, ids, batchSize, (pstmt, id) -> pstmt.setString(1, id));
+    }
+
+    private void bindInsert(PreparedStatement pstmt, Employee employee) throws SQLException {
+        pstmt.setString(1, employee.getId());
+        pstmt.setString(2, employee.getName());
+        pstmt.setInt(3, employee.getAge());
+        pstmt.setLong(4, toCents(employee.getSalary()));
+        pstmt.setString(5, employee.getJobTitle());
+    }
+
+    private void bindUpdate(PreparedStatement pstmt, Employee employee) throws SQLException {
+        pstmt.setString(1, employee.getName());
+        pstmt.setInt(2, employee.getAge());
+        pstmt.setLong(3, toCents(employee.getSalary()));
+        pstmt.setString(4, employee.getJobTitle());
+        pstmt.setString(5, employee.getId()); // ID is used in the WHERE clause
+    }
+
+    /**
+     * Salaries are stored as whole cents (schema version 1).
+     */
+    private static long toCents(double salary) {
+        return Math.round(salary * 100.0);
+    }
+
     /**
      * Helper method to convert a database row (ResultSet) into a Java Employee object.
      * @param rs The ResultSet object.
@@ -132,8 +211,8 @@ public class EmployeeDAOImpl implements GenericDAO<Employee> {
                 rs.getString("id"),
                 rs.getString("name"),
                 rs.getInt("age"),
-                rs.getDouble("salary"),
-                rs.getString("jobTitle")
+                rs.getLong("salaryCents") / 100.0,
+                JOB_TITLES.intern(rs.getString("jobTitle"))
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package dao.sqlite;
+
+import dao.Page;
+import exception.DataAccessException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shared keyset (seek) pagination for the SQLite DAOs.
+ * Pages are ordered by (sortColumn, id) and each page starts strictly after the last key of the
+ * previous one, using a row-value comparison that SQLite answers with an index range scan.
+ * Only indexed TEXT columns are sortable, so keys compare exactly as they are stored.
+ */
+final class KeysetPager {
+
+    private static final String TOKEN_SEPARATOR = "\n";
+
+    private KeysetPager() {
+    }
+
+    /**
+     * Fetches one page from the given table.
+     * @param table The table name.
+     * @param sortableColumns Whitelist of columns that may be used for ordering (guards the SQL).
+     * @param sortColumn The requested sort column (null means "id").
+     * @param pageSize Maximum rows on the page.
+     * @param continuationToken Token from the previous page, or null for the first page.
+     * @param mapper Maps a row to an entity.
+     * @return The page of entities; on a database error an empty last page is returned.
+     */
+    static <T> Page<T> fetch(String table, Set<String> sortableColumns, String sortColumn, int pageSize,
+                             String continuationToken, ResultSetStream.RowMapper<T> mapper) {
+        String column = validate(table, sortableColumns, sortColumn, pageSize);
+        String[] lastKey = continuationToken == null ? null : decodeToken(continuationToken, column);
+        boolean byId = column.equals("id");
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table);
+        if (lastKey != null) {
+            sql.append(byId ? " WHERE id > ?" : " WHERE (" + column + ", id) > (?, ?)");
+        }
+        sql.append(orderBy(column));
+        sql.append(" LIMIT ?");
+
+        return query(table, column, sql.toString(), pageSize, mapper, pstmt -> {
+            int index = 1;
+            if (lastKey != null) {
+                if (!byId) {
+                    pstmt.setString(index++, lastKey[0]);
+                }
+                pstmt.setString(index++, lastKey[1]);
+            }
+            // Fetch one extra row to find out whether another page follows
+            pstmt.setInt(index, pageSize + 1);
+        });
+    }
+
+    /**
+     * Fetches the page starting at an absolute row position (OFFSET). SQLite still has to step over
+     * the skipped index entries, so this is meant for random jumps (e.g. dragging a scrollbar);
+     * the returned continuation token lets the caller carry on with cheap keyset pages from there.
+     * @param offset Zero-based position of the first row of the page.
+     * @return The page of entities; on a database error an empty last page is returned.
+     */
+    static <T> Page<T> fetchAt(String table, Set<String> sortableColumns, String sortColumn, long offset,
+                               int pageSize, ResultSetStream.RowMapper<T> mapper) {
+        String column = validate(table, sortableColumns, sortColumn, pageSize);
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + offset);
+        }
+        String sql = "SELECT * FROM " + table + orderBy(column) + " LIMIT ? OFFSET ?";
+
+        return query(table, column, sql, pageSize, mapper, pstmt -> {
+            pstmt.setInt(1, pageSize + 1);
+            pstmt.setLong(2, offset);
+        });
+    }
+
+    /**
+     * @return The number of rows in the table, or 0 on a database error.
+     */
+    static long count(String table) {
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement("SELECT COUNT(*) FROM " + table);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Error counting rows in " + table + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static String validate(String table, Set<String> sortableColumns, String sortColumn, int pageSize) {
+        String column = (sortColumn == null || sortColumn.isEmpty()) ? "id" : sortColumn;
+        if (!sortableColumns.contains(column)) {
+            throw new IllegalArgumentException("Cannot page " + table + " by '" + column + "'. Sortable columns: " + sortableColumns);
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        return column;
+    }
+
+    private static String orderBy(String column) {
+        return column.equals("id") ? " ORDER BY id" : " ORDER BY " + column + ", id";
+    }
+
+    /**
+     * Runs a page query that selects up to pageSize + 1 rows and builds the page and its token.
+     */
+    private static <T> Page<T> query(String table, String column, String sql, int pageSize,
+                                     ResultSetStream.RowMapper<T> mapper, ResultSetStream.ParameterBinder binder) {
+        List<T> items = new ArrayList<>(pageSize);
+        String nextToken = null;
+
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
+            binder.bind(pstmt);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                String lastSortValue = null;
+                String lastId = null;
+                while (rs.next()) {
+                    if (items.size() == pageSize) {
+                        nextToken = encodeToken(column, lastSortValue, lastId);
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                    lastSortValue = rs.getString(column);
+                    lastId = rs.getString("id");
+                }
+            }
+        } catch (SQLException e) {
+            // Not an empty last page: callers treat a short page without a token as the end of the table
+            throw new DataAccessException("Error fetching page from " + table + ": " + e.getMessage(), e);
+        }
+        return new Page<>(items, nextToken);
+    }
+
+    private static String encodeToken(String column, String sortValue, String id) {
+        String raw = column + TOKEN_SEPARATOR + sortValue + TOKEN_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {sortValue, id} of the last row on the previous page.
+     */
+    private static String[] decodeToken(String token, String expectedColumn) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token.", e);
+        }
+        // The sort value may itself contain the separator, so split on the first and last one
+        int first = raw.indexOf(TOKEN_SEPARATOR);
+        int last = raw.lastIndexOf(TOKEN_SEPARATOR);
+        if (first < 0 || first == last) {
+            throw new IllegalArgumentException("Invalid continuation token.");
+        }
+        String column = raw.substring(0, first);
+        if (!column.equals(expectedColumn)) {
+            throw new IllegalArgumentException("Continuation token was issued for sort column '" + column
+                    + "', not '" + expectedColumn + "'.");
+        }
+        return new String[]{raw.substring(first + 1, last), raw.substring(last + 1)};
+    }
+}
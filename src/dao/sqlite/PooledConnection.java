@@ -0,0 +1,40 @@
+package dao.sqlite;
+
+import java.sql.Connection;
+import java.util.function.Consumer;
+
+/**
+ * A borrowed database connection handed out by SQLiteConnection.
+ * Closing the lease returns the connection to its pool; it does NOT close the underlying
+ * JDBC Connection. Always use it in a try-with-resources block.
+ */
+public final class PooledConnection implements AutoCloseable {
+
+    private final Connection connection;
+    private final Consumer<Connection> releaseAction;
+    private boolean released = false;
+
+    PooledConnection(Connection connection, Consumer<Connection> releaseAction) {
+        this.connection = connection;
+        this.releaseAction = releaseAction;
+    }
+
+    /**
+     * Gets the borrowed JDBC connection. It must not be used after the lease is closed.
+     * @return The pooled Connection object.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns the connection to the pool. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (!released) {
+            released = true;
+            releaseAction.accept(connection);
+        }
+    }
+}
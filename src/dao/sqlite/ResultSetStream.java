@@ -0,0 +1,104 @@
+package dao.sqlite;
+
+import exception.DataAccessException;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Builds lazily-mapped Streams on top of an open database cursor.
+ * Rows are converted to entities one at a time as the stream is consumed, so memory use
+ * does not depend on the size of the table. The stream holds a pooled reader connection
+ * until it is closed, so callers MUST use it in a try-with-resources block.
+ */
+final class ResultSetStream {
+
+    /**
+     * Converts the current row of a ResultSet into an entity.
+     * @param <T> The entity type.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds query parameters before execution (for parameterized streaming queries).
+     */
+    @FunctionalInterface
+    interface ParameterBinder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    private ResultSetStream() {
+    }
+
+    static <T> Stream<T> open(String sql, int fetchSize, RowMapper<T> mapper) {
+        return open(sql, fetchSize, pstmt -> { }, mapper);
+    }
+
+    /**
+     * Executes the query on a borrowed reader connection and exposes the rows as a Stream.
+     * @param sql The SELECT statement.
+     * @param fetchSize Hint for the number of rows the driver fetches at a time.
+     * @param binder Sets any statement parameters.
+     * @param mapper Maps each row to an entity.
+     * @return A sequential stream that releases the cursor and connection when closed.
+     * @throws DataAccessException if no reader connection is available or the query fails to start
+     * (an empty stream would be indistinguishable from an empty table).
+     */
+    static <T> Stream<T> open(String sql, int fetchSize, ParameterBinder binder, RowMapper<T> mapper) {
+        PooledConnection lease = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            lease = SQLiteConnection.getInstance().acquireReader();
+            pstmt = lease.getConnection().prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            binder.bind(pstmt);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            closeAll(rs, pstmt, lease);
+            throw new DataAccessException("Error opening streaming query: " + e.getMessage(), e);
+        }
+
+        final ResultSet cursor = rs;
+        final PreparedStatement statement = pstmt;
+        final PooledConnection connection = lease;
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DataAccessException("Error reading row from streaming query: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeAll(cursor, statement, connection));
+    }
+
+    private static void closeAll(ResultSet rs, PreparedStatement pstmt, PooledConnection lease) {
+        try {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing streaming query: " + e.getMessage());
+        } finally {
+            if (lease != null) lease.close();
+        }
+    }
+}
@@ -2,42 +2,97 @@ package dao.sqlite;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Manages the singleton connection to the SQLite database.
- * The connection is established once and held open for the application lifetime.
+ * Manages the connections to the SQLite database.
+ * The database runs in WAL (write-ahead log) mode, so readers never block the writer and
+ * the writer never blocks readers. To take advantage of that, the manager holds:
+ * 1. One dedicated writer connection, handed out to a single thread at a time.
+ * 2. A small pool of read-only connections for queries (findAll, analytics, exports).
+ * DAOs borrow a connection with acquireReader()/acquireWriter() and return it by closing
+ * the PooledConnection lease (try-with-resources).
  */
 public class SQLiteConnection {
 
     // --- Singleton Instance ---
-    private static SQLiteConnection instance = null;
+    // volatile + double-checked locking keeps lazy init safe when several threads start at once.
+    private static volatile SQLiteConnection instance = null;
 
     // --- Database File Path ---
-    // Simplified path: file will be created in the project root directory
-    private static final String DB_URL = "jdbc:sqlite:ecms_db.sqlite";
+    // Simplified path: file will be created in the project root directory.
+    // Can be overridden with -Decms.db.url=... (e.g. for load tests against a separate file).
+    private static final String DB_URL = System.getProperty("ecms.db.url", "jdbc:sqlite:ecms_db.sqlite");
 
-    // --- Connection Object ---
-    // CRITICAL: This instance variable holds the active connection.
-    private Connection connection;
+    // --- Pool Configuration ---
+    private static final int READER_POOL_SIZE = Integer.getInteger("ecms.db.readers",
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    private static final long ACQUIRE_TIMEOUT_MILLIS = Long.getLong("ecms.db.acquireTimeoutMillis", 30_000L);
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+
+    // --- Schema Version (PRAGMA user_version) ---
+    // 0: original layout (REAL salary, ISO TEXT dates, rowid tables)
+    // 1: compact layout (integer cents, epoch-day dates, WITHOUT ROWID tables keyed by id)
+    static final int SCHEMA_VERSION = 1;
+
+    // --- Connection Objects ---
+    private final Connection writerConnection;
+    private final ReentrantLock writerLock = new ReentrantLock(true); // fair: saves are served in order
+    private final BlockingQueue<Connection> idleReaders;
+    private final List<Connection> allReaders = new ArrayList<>();
+
+    // --- Pool Statistics ---
+    private final AtomicLong readerCheckouts = new AtomicLong();
+    private final AtomicLong writerCheckouts = new AtomicLong();
+    private final AtomicLong readerWaitNanos = new AtomicLong();
+    private final AtomicLong writerWaitNanos = new AtomicLong();
+    private final AtomicLong readerTimeouts = new AtomicLong();
 
     /**
      * Private constructor to prevent direct instantiation (enforcing Singleton).
-     * Establishes the connection and calls initializeTables.
+     * Opens the writer connection, switches the database to WAL mode, creates the tables
+     * and then opens the reader pool.
      */
     private SQLiteConnection() {
         try {
             // 1. Load the SQLite JDBC Driver class
             Class.forName("org.sqlite.JDBC");
 
-            // 2. Establish and RETAIN the connection.
-            // DO NOT use try-with-resources here, or it will auto-close the connection.
-            this.connection = DriverManager.getConnection(DB_URL);
+            // 2. Establish and RETAIN the writer connection.
+            this.writerConnection = DriverManager.getConnection(DB_URL);
+            try (Statement statement = writerConnection.createStatement()) {
+                // WAL is persistent in the database file, so every connection opened afterwards uses it.
+                statement.execute("PRAGMA journal_mode = WAL");
+                // NORMAL is durable across application crashes in WAL mode and avoids an fsync per commit.
+                statement.execute("PRAGMA synchronous = NORMAL");
+                statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            }
 
             // 3. Ensure tables exist immediately after connection
             initializeTables();
 
+            // 4. Open the reader pool
+            this.idleReaders = new ArrayBlockingQueue<>(READER_POOL_SIZE);
+            for (int i = 0; i < READER_POOL_SIZE; i++) {
+                Connection reader = DriverManager.getConnection(DB_URL);
+                try (Statement statement = reader.createStatement()) {
+                    statement.execute("PRAGMA query_only = ON");
+                    statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+                }
+                allReaders.add(reader);
+                idleReaders.add(reader);
+            }
+            System.out.println("SQLite connection pool ready: 1 writer, " + READER_POOL_SIZE + " readers (WAL mode).");
+
         } catch (ClassNotFoundException e) {
             System.err.println("Error: SQLite JDBC Driver not found.");
             throw new RuntimeException("SQLite JDBC Driver missing.", e);
@@ -49,29 +104,197 @@ public class SQLiteConnection {
 
     /**
      * Public static method to get the single instance of the class (Singleton access).
+     * Safe to call from any thread.
      * @return The single SQLiteConnection instance.
      */
     public static SQLiteConnection getInstance() {
-        if (instance == null) {
-            instance = new SQLiteConnection();
+        SQLiteConnection result = instance;
+        if (result == null) {
+            synchronized (SQLiteConnection.class) {
+                result = instance;
+                if (result == null) {
+                    result = new SQLiteConnection();
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // =========================================================
+    // CONNECTION CHECKOUT
+    // =========================================================
+
+    /**
+     * Borrows a read-only connection from the pool, waiting if all readers are in use.
+     * @return A lease that returns the connection to the pool when closed.
+     * @throws SQLException if no reader becomes available within the acquire timeout.
+     */
+    public PooledConnection acquireReader() throws SQLException {
+        long start = System.nanoTime();
+        Connection reader = idleReaders.poll();
+        if (reader == null) {
+            try {
+                reader = idleReaders.poll(ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a reader connection.", e);
+            }
+            if (reader == null) {
+                readerTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + ACQUIRE_TIMEOUT_MILLIS + " ms waiting for a reader connection.");
+            }
+        }
+        readerWaitNanos.addAndGet(System.nanoTime() - start);
+        readerCheckouts.incrementAndGet();
+        return new PooledConnection(reader, this::releaseReader);
+    }
+
+    /**
+     * Borrows the single writer connection. Only one thread can hold it at a time;
+     * the same thread may acquire it again (nested saves inside a bulk operation).
+     * @return A lease that releases the writer when closed.
+     * @throws SQLException if the writer does not become available within the acquire timeout.
+     */
+    public PooledConnection acquireWriter() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + ACQUIRE_TIMEOUT_MILLIS + " ms waiting for the writer connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection.", e);
+        }
+        writerWaitNanos.addAndGet(System.nanoTime() - start);
+        writerCheckouts.incrementAndGet();
+        return new PooledConnection(writerConnection, connection -> writerLock.unlock());
+    }
+
+    private void releaseReader(Connection reader) {
+        idleReaders.offer(reader);
+    }
+
+    /**
+     * Closes every connection held by the manager. Intended for application/CLI shutdown.
+     */
+    public void shutdown() {
+        for (Connection reader : allReaders) {
+            closeQuietly(reader);
+        }
+        closeQuietly(writerConnection);
+        System.out.println("SQLite connection pool closed. " + getPoolStatistics());
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing database connection: " + e.getMessage());
+        }
+    }
+
+    // =========================================================
+    // MAINTENANCE
+    // =========================================================
+
+    /**
+     * Copies the WAL file back into the database and truncates it, then lets SQLite refresh its
+     * query planner statistics. Meant for scheduled maintenance runs (see cli.EcmsCli).
+     * @throws SQLException if the writer is unavailable or a pragma fails.
+     */
+    public void checkpointAndOptimize() throws SQLException {
+        try (PooledConnection lease = acquireWriter();
+             Statement stmt = lease.getConnection().createStatement()) {
+            stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            stmt.execute("PRAGMA optimize");
+        }
+    }
+
+    /**
+     * Runs SQLite's quick integrity check (b-tree structure, NOT NULL and UNIQUE constraints).
+     * @return The problems reported; empty if the database is intact.
+     * @throws SQLException if the check cannot be run.
+     */
+    public List<String> quickCheck() throws SQLException {
+        List<String> problems = new ArrayList<>();
+        try (PooledConnection lease = acquireReader();
+             Statement stmt = lease.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA quick_check")) {
+            while (rs.next()) {
+                String result = rs.getString(1);
+                if (!"ok".equalsIgnoreCase(result)) {
+                    problems.add(result);
+                }
+            }
         }
-        return instance;
+        return problems;
+    }
+
+    // =========================================================
+    // POOL STATISTICS (for sizing multi-user installs)
+    // =========================================================
+
+    public int getReaderPoolSize() {
+        return READER_POOL_SIZE;
+    }
+
+    public int getIdleReaderCount() {
+        return idleReaders.size();
+    }
+
+    public long getReaderCheckoutCount() {
+        return readerCheckouts.get();
+    }
+
+    public long getWriterCheckoutCount() {
+        return writerCheckouts.get();
+    }
+
+    public long getReaderTimeoutCount() {
+        return readerTimeouts.get();
+    }
+
+    /**
+     * @return Total time (ms) callers have spent waiting for a reader connection.
+     */
+    public long getReaderWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(readerWaitNanos.get());
     }
 
     /**
-     * Gets the active database connection object.
-     * @return The persistent Connection object.
+     * @return Total time (ms) callers have spent waiting for the writer connection.
      */
-    public Connection getConnection() {
-        return connection;
+    public long getWriterWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(writerWaitNanos.get());
     }
 
     /**
-     * Creates the Employee, Customer, and User tables if they do not already exist.
-     * Uses the retained connection to create a Statement (which is closed properly).
+     * @return A one-line summary of the pool counters, suitable for logs and the status bar.
+     */
+    public String getPoolStatistics() {
+        return String.format(
+                "Readers: %d/%d idle, %d checkouts, %d ms waited, %d timeouts | Writer: %d checkouts, %d ms waited",
+                getIdleReaderCount(), READER_POOL_SIZE, getReaderCheckoutCount(), getReaderWaitTimeMillis(),
+                getReaderTimeoutCount(), getWriterCheckoutCount(), getWriterWaitTimeMillis());
+    }
+
+    // =========================================================
+    // SCHEMA
+    // =========================================================
+
+    /**
+     * Creates the Employee, Customer, and User tables if they do not already exist, after
+     * migrating tables from an older schema version.
+     * Uses the writer connection to create a Statement (which is closed properly).
+     *
+     * Compact layout (version 1): salaries are INTEGER cents (exact, and 1-4 bytes per row instead
+     * of an 8-byte REAL), purchase dates are INTEGER epoch days (no date parsing when reading), and
+     * the tables are WITHOUT ROWID, so rows are stored in the id B-tree itself rather than in a
+     * rowid table plus a separate id index that repeats every 36-character key.
      */
     private void initializeTables() {
-        if (connection == null) return; // Safety check
+        if (writerConnection == null) return; // Safety check
 
         // SQL for creating the Employee table
         String createEmployeeTable =
@@ -79,9 +302,9 @@ public class SQLiteConnection {
                         "id TEXT PRIMARY KEY," +
                         "name TEXT NOT NULL," +
                         "age INTEGER NOT NULL," +
-                        "salary REAL NOT NULL," +
+                        "salaryCents INTEGER NOT NULL," +
                         "jobTitle TEXT NOT NULL" +
-                        ");";
+                        ") WITHOUT ROWID;";
 
         // SQL for creating the Customer table
         String createCustomerTable =
@@ -90,8 +313,8 @@ public class SQLiteConnection {
                         "name TEXT NOT NULL," +
                         "age INTEGER NOT NULL," +
                         "membershipLevel TEXT NOT NULL," +
-                        "lastPurchaseDate TEXT NOT NULL" +
-                        ");";
+                        "lastPurchaseDay INTEGER NOT NULL" +
+                        ") WITHOUT ROWID;";
 
         // SQL for creating the User table for authentication
         String createUserTable =
@@ -101,11 +324,31 @@ public class SQLiteConnection {
                         "role TEXT NOT NULL" +
                         ");";
 
-        // Use try-with-resources on the Statement to close it, while keeping 'connection' open.
-        try (Statement statement = this.connection.createStatement()) {
+        // Indexes backing keyset pagination: each sortable column is paired with id as the tie-breaker
+        String[] createIndexes = {
+                "CREATE INDEX IF NOT EXISTS idx_employees_name ON Employees (name, id);",
+                "CREATE INDEX IF NOT EXISTS idx_employees_jobTitle ON Employees (jobTitle, id);",
+                "CREATE INDEX IF NOT EXISTS idx_customers_name ON Customers (name, id);",
+                "CREATE INDEX IF NOT EXISTS idx_customers_membershipLevel ON Customers (membershipLevel, id);"
+        };
+
+        // Use try-with-resources on the Statement to close it, while keeping the connection open.
+        try (Statement statement = this.writerConnection.createStatement()) {
+            int version = readSchemaVersion(statement);
+            if (version > SCHEMA_VERSION) {
+                throw new SQLException("Database schema version " + version + " is newer than this application supports (" + SCHEMA_VERSION + ").");
+            }
+            if (version < 1) {
+                migrateToCompactLayout(statement, createEmployeeTable, createCustomerTable);
+            }
+
             statement.execute(createEmployeeTable);
             statement.execute(createCustomerTable);
             statement.execute(createUserTable);
+            for (String createIndex : createIndexes) {
+                statement.execute(createIndex);
+            }
+            statement.execute("PRAGMA user_version = " + SCHEMA_VERSION);
             System.out.println("Database tables checked/created successfully.");
         } catch (SQLException e) {
             System.err.println("Error creating database tables: " + e.getMessage());
@@ -113,4 +356,60 @@ public class SQLiteConnection {
             throw new RuntimeException("Failed to initialize database tables.", e);
         }
     }
-}
\ No newline at end of file
+
+    private static int readSchemaVersion(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Version 0 -> 1: rebuilds Employees and Customers in the compact layout, converting the data,
+     * in one transaction (a failure leaves the database as it was). The old indexes are dropped with
+     * their tables and recreated by the caller. Afterwards the file is vacuumed once so the space of
+     * the old tables is returned to the file system.
+     */
+    private void migrateToCompactLayout(Statement statement, String createEmployeeTable, String createCustomerTable) throws SQLException {
+        boolean legacyEmployees = hasColumn(statement, "Employees", "salary");
+        boolean legacyCustomers = hasColumn(statement, "Customers", "lastPurchaseDate");
+        if (!legacyEmployees && !legacyCustomers) {
+            return; // New database (or already migrated tables); nothing to convert
+        }
+
+        System.out.println("Migrating database to schema version 1 (compact layout)...");
+        long start = System.nanoTime();
+        writerConnection.setAutoCommit(false);
+        try {
+            if (legacyEmployees) {
+                statement.execute("ALTER TABLE Employees RENAME TO Employees_v0");
+                statement.execute(createEmployeeTable);
+                statement.execute("INSERT INTO Employees (id, name, age, salaryCents, jobTitle) " +
+                        "SELECT id, name, age, CAST(ROUND(salary * 100) AS INTEGER), jobTitle FROM Employees_v0");
+                statement.execute("DROP TABLE Employees_v0");
+            }
+            if (legacyCustomers) {
+                statement.execute("ALTER TABLE Customers RENAME TO Customers_v0");
+                statement.execute(createCustomerTable);
+                // julianday('1970-01-01') is 2440587.5; a date that does not parse fails the NOT NULL constraint
+                statement.execute("INSERT INTO Customers (id, name, age, membershipLevel, lastPurchaseDay) " +
+                        "SELECT id, name, age, membershipLevel, CAST(julianday(lastPurchaseDate) - 2440587.5 AS INTEGER) FROM Customers_v0");
+                statement.execute("DROP TABLE Customers_v0");
+            }
+            statement.execute("PRAGMA user_version = 1");
+            writerConnection.commit();
+        } catch (SQLException e) {
+            writerConnection.rollback();
+            throw new SQLException("Schema migration to version 1 failed and was rolled back: " + e.getMessage(), e);
+        } finally {
+            writerConnection.setAutoCommit(true);
+        }
+        statement.execute("VACUUM");
+        System.out.printf("Schema migration finished in %d ms.%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static boolean hasColumn(Statement statement, String table, String column) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM pragma_table_info('" + table + "') WHERE name = '" + column + "'")) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+}
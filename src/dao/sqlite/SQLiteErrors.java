@@ -0,0 +1,33 @@
+package dao.sqlite;
+
+import exception.DataAccessException;
+import exception.DuplicateKeyException;
+
+import java.sql.SQLException;
+
+/**
+ * Translates SQLExceptions from write operations into the unchecked DataAccessException hierarchy,
+ * so the service layer can tell a constraint violation (DuplicateKeyException) from other failures
+ * such as a writer-acquire timeout or SQLITE_BUSY.
+ */
+final class SQLiteErrors {
+
+    private static final int SQLITE_CONSTRAINT = 19; // Primary result code; extended codes keep it in the low byte
+
+    private SQLiteErrors() {
+    }
+
+    static boolean isConstraintViolation(SQLException e) {
+        return (e.getErrorCode() & 0xFF) == SQLITE_CONSTRAINT;
+    }
+
+    /**
+     * @param message What failed (e.g. "Error saving employee").
+     */
+    static DataAccessException translate(String message, SQLException e) {
+        if (isConstraintViolation(e)) {
+            return new DuplicateKeyException(message + ": " + e.getMessage(), e);
+        }
+        return new DataAccessException(message + ": " + e.getMessage(), e);
+    }
+}
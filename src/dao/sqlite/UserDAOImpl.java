@@ -2,48 +2,95 @@ package dao.sqlite;
 
 import dao.GenericDAO;
 import dao.UserDAO; // CRITICAL: Now implementing both interfaces
+import exception.DuplicateKeyException;
 import model.User;
 import util.CustomExceptions.RecordNotFoundException;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 // CRITICAL FIX: Implements BOTH interfaces (GenericDAO and UserDAO) to resolve the 'Incompatible types' error.
 public class UserDAOImpl implements GenericDAO<User>, UserDAO {
 
+    private static final String SAVE_SQL = "INSERT INTO Users (username, hashed_password, role) VALUES (?, ?, ?)";
+    private static final String INSERT_SQL = "INSERT OR IGNORE INTO Users (username, hashed_password, role) VALUES (?, ?, ?)";
+    private static final String EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM Users WHERE username = ?)";
+    private static final int EXISTS_CHUNK_SIZE = 500; // Below SQLite's bound-parameter limit
+
+    // Shared across instances: one filter per database
+    private final UsernameIndex usernames = UsernameIndex.getInstance();
+
     /**
      * Saves a new User record into the database. Essential for initial admin setup.
-     * FIX: The Connection is retrieved outside the try-with-resources block.
+     * The writer connection is borrowed from the pool and returned when the block exits.
+     * A plain INSERT, not INSERT OR IGNORE: the username filter only knows this process's inserts, so a
+     * name added by another process (CLI import, API server) must still fail here rather than be skipped.
+     * @throws exception.DuplicateKeyException if the username already exists.
      */
     @Override
     public void save(User user) {
-        String sql = "INSERT OR IGNORE INTO Users (username, hashed_password, role) VALUES (?, ?, ?)";
+        String sql = SAVE_SQL;
 
-        // 1. Get the persistent connection outside of try-with-resources
-        Connection conn = SQLiteConnection.getInstance().getConnection();
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
 
-        // 2. Use try-with-resources ONLY for the PreparedStatement
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindInsert(pstmt, user);
 
-            pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getHashedPassword());
-            pstmt.setString(3, user.getRole());
-
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() == 0) {
+                throw new DuplicateKeyException("Error saving user " + user.getUsername() + ": the username already exists");
+            }
 
         } catch (SQLException e) {
             // This is where the "database connection closed" error was occurring
             System.err.println("Error saving user: " + e.getMessage());
+            if (SQLiteErrors.isConstraintViolation(e)) {
+                usernames.added(user.getUsername()); // Inserted by another process; teach this process's filter
+            }
+            throw SQLiteErrors.translate("Error saving user " + user.getUsername(), e);
+        }
+        // After the writer lease is released: a growth-triggered rebuild scans the table
+        usernames.added(user.getUsername());
+    }
+
+    /**
+     * Saves many users in one transaction using JDBC batching.
+     * Existing usernames are skipped (INSERT OR IGNORE), so the returned count only includes new rows.
+     */
+    @Override
+    public int saveAll(Collection<User> users, int batchSize) {
+        int saved = BatchExecutor.execute(INSERT_SQL, users, batchSize, this::bindInsert);
+        // Ignored duplicates are in the table already, so adding every name is correct
+        users.forEach(user -> usernames.added(user.getUsername()));
+        return saved;
+    }
+
+    /**
+     * Saves many users in one transaction using JDBC batching, reporting which rows were new.
+     * @return For each user, true if it was inserted, false if the username already existed.
+     */
+    @Override
+    public boolean[] saveAllIfAbsent(List<User> users, int batchSize) {
+        int[] counts = BatchExecutor.executeEach(INSERT_SQL, users, batchSize, this::bindInsert);
+        boolean[] inserted = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            inserted[i] = counts[i] > 0;
+            if (inserted[i]) {
+                usernames.added(users.get(i).getUsername());
+            }
         }
+        return inserted;
     }
 
     /**
      * Finds a user by their username. This is the primary method for authentication.
-     * FIX: The Connection is retrieved outside the try-with-resources block.
+     * A reader connection is borrowed from the pool for the duration of the query.
      * @param username The username to search for.
      * @return The User object if found.
      * @throws RecordNotFoundException if no user with that username exists.
@@ -52,11 +99,9 @@ public class UserDAOImpl implements GenericDAO<User>, UserDAO {
     public User findByUsername(String username) throws RecordNotFoundException {
         String sql = "SELECT username, hashed_password, role FROM Users WHERE username = ?";
 
-        // 1. Get the persistent connection outside of try-with-resources
-        Connection conn = SQLiteConnection.getInstance().getConnection();
-
-        // 2. Use try-with-resources ONLY for the PreparedStatement (ResultSet is closed by the Statement)
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        // The ResultSet is closed by the Statement, which is closed before the lease is returned
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
 
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
@@ -84,22 +129,71 @@ public class UserDAOImpl implements GenericDAO<User>, UserDAO {
     /**
      * Checks if a user with the given username already exists in the database.
      * Used by the service layer during new user registration to enforce uniqueness.
+     * Names the username filter has never seen are answered without a query; the rest are confirmed
+     * with an EXISTS query.
      * @param username The username to check.
      * @return true if a user with that username exists, false otherwise.
      */
+    @Override
     public boolean checkIfUsernameExists(String username) {
-        // Since findByUsername handles the core logic, we can reuse it
-        try {
-            findByUsername(username);
-            return true; // If findByUsername returns successfully, the user exists
-        } catch (RecordNotFoundException e) {
-            return false; // If RecordNotFoundException is thrown, the user does not exist
-        } catch (Exception e) {
+        if (!usernames.mightContain(username)) {
+            return false;
+        }
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(EXISTS_SQL)) {
+            pstmt.setString(1, username);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        } catch (SQLException e) {
             System.err.println("Database error during username check: " + e.getMessage());
-            return true; // On any other DB error, assume it exists to prevent creation (fail safe)
+            return true; // On any DB error, assume it exists to prevent creation (fail safe)
         }
     }
 
+    /**
+     * Finds which of the given usernames already exist, e.g. to validate a bulk provisioning file.
+     * Only names the username filter cannot rule out are queried, in chunks of IN (...) lookups.
+     * @return The subset of usernames that exist.
+     */
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> candidates) {
+        List<String> toQuery = new ArrayList<>();
+        for (String username : candidates) {
+            if (username != null && usernames.mightContain(username)) {
+                toQuery.add(username);
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (int start = 0; start < toQuery.size(); start += EXISTS_CHUNK_SIZE) {
+            List<String> chunk = toQuery.subList(start, Math.min(toQuery.size(), start + EXISTS_CHUNK_SIZE));
+            String sql = "SELECT username FROM Users WHERE username IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (PooledConnection lease = SQLiteConnection.getInstance().acquireReader();
+                 PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Database error during username check: " + e.getMessage());
+                existing.addAll(chunk); // Fail safe, as in checkIfUsernameExists
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * @return Size and hit counters of the shared username filter.
+     */
+    public String getUsernameFilterStatistics() {
+        return usernames.getStatistics();
+    }
+
     // =========================================================
     // GENERIC DAO IMPLEMENTATIONS (Required by GenericDAO interface)
     // =========================================================
@@ -125,9 +219,8 @@ public class UserDAOImpl implements GenericDAO<User>, UserDAO {
         // in a real app, but for simplicity here, we select everything.
         String sql = "SELECT username, hashed_password, role FROM Users";
 
-        Connection conn = SQLiteConnection.getInstance().getConnection();
-
-        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) { // Execute query with the Statement
 
             while (rs.next()) {
@@ -144,12 +237,26 @@ public class UserDAOImpl implements GenericDAO<User>, UserDAO {
         return users;
     }
     /**
-     * Implementation required by GenericDAO. Basic stub for now.
+     * Updates the stored password hash and role of an existing user (matched by username),
+     * e.g. when a legacy password hash is upgraded after login.
+     * @return true if the user was updated, false if no user has that username.
      */
     @Override
-    public void update(User entity) {
-        // Not required for basic login, do nothing
-        System.out.println("User update called (Stub)");
+    public boolean update(User entity) {
+        String sql = "UPDATE Users SET hashed_password = ?, role = ? WHERE username = ?";
+
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
+
+            pstmt.setString(1, entity.getHashedPassword());
+            pstmt.setString(2, entity.getRole());
+            pstmt.setString(3, entity.getUsername());
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("SQL Error updating user: " + e.getMessage());
+            throw SQLiteErrors.translate("Error updating user " + entity.getUsername(), e);
+        }
     }
 
     /**
@@ -161,18 +268,29 @@ public class UserDAOImpl implements GenericDAO<User>, UserDAO {
     public boolean delete(String username) {
         String sql = "DELETE FROM Users WHERE username = ?";
 
-        Connection conn = SQLiteConnection.getInstance().getConnection();
-
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PooledConnection lease = SQLiteConnection.getInstance().acquireWriter();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement(sql)) {
 
             pstmt.setString(1, username);
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                usernames.removed();
+            }
 
             return affectedRows > 0; // Returns true if one or more rows were deleted
 
         } catch (SQLException e) {
             System.err.println("SQL Error deleting user: " + e.getMessage());
-            return false;
+            throw SQLiteErrors.translate("Error deleting user " + username, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Helper method to bind a User to the INSERT statement.
+     */
+    private void bindInsert(PreparedStatement pstmt, User user) throws SQLException {
+        pstmt.setString(1, user.getUsername());
+        pstmt.setString(2, user.getHashedPassword());
+        pstmt.setString(3, user.getRole());
+    }
+}
@@ -0,0 +1,136 @@
+package dao.sqlite;
+
+import util.BloomFilter;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory Bloom filter over the usernames in the Users table, shared by all UserDAOImpl instances
+ * (there is one database per process). A "definitely absent" answer needs no query; "possibly
+ * present" is confirmed by UserDAOImpl with an EXISTS query.
+ *
+ * Built from the table on first use (at startup, by the initial admin check) and updated after each
+ * insert. Deleted names cannot be removed from a Bloom filter, so they only cost a confirming query;
+ * the filter is rebuilt once deletes reach a quarter of its entries, or when it grows past the size
+ * it was built for and its false positive rate would climb.
+ */
+final class UsernameIndex {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MIN_CAPACITY = 1_024;
+
+    private static final UsernameIndex INSTANCE = new UsernameIndex();
+
+    private volatile BloomFilter filter;   // null until first use
+    private volatile BloomFilter building; // Receives inserts made while a rebuild scans the table
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong deletesSinceBuild = new AtomicLong();
+
+    // --- Statistics ---
+    private final LongAdder definitelyAbsent = new LongAdder();
+    private final LongAdder possiblyPresent = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    private UsernameIndex() {
+    }
+
+    static UsernameIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return false if the username is certainly not in the table; true if it may be.
+     */
+    boolean mightContain(String username) {
+        BloomFilter current = filter;
+        if (current == null) {
+            current = rebuild();
+        }
+        boolean result = current == null || current.mightContain(username);
+        (result ? possiblyPresent : definitelyAbsent).increment();
+        return result;
+    }
+
+    /**
+     * Records a username that was just inserted (call after the insert has committed).
+     */
+    void added(String username) {
+        // Read 'building' before 'filter': if no rebuild is running yet, its scan starts later and sees
+        // this (already committed) row; if one finishes in between, 'filter' is already the new one.
+        BloomFilter next = building;
+        BloomFilter current = filter;
+        if (next != null) {
+            next.add(username);
+        }
+        if (current == null) {
+            return; // Not built yet; the first use scans the table
+        }
+        current.add(username);
+        if (entries.incrementAndGet() > current.getExpectedEntries()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Records a delete. The name stays in the filter until the next rebuild.
+     */
+    void removed() {
+        BloomFilter current = filter;
+        if (current != null && deletesSinceBuild.incrementAndGet() > Math.max(64, entries.get() / 4)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Scans the Users table into a new filter sized for twice the current row count.
+     * Inserts that commit during the scan are added to the new filter through 'building'.
+     * @return The new filter, or the previous one (possibly null) if the table could not be read.
+     */
+    synchronized BloomFilter rebuild() {
+        SQLiteConnection database = SQLiteConnection.getInstance();
+        try {
+            long rowCount = countRows(database);
+            BloomFilter fresh = new BloomFilter(Math.max(MIN_CAPACITY, rowCount * 2), FALSE_POSITIVE_RATE);
+            building = fresh;
+            long loaded = 0;
+            try (PooledConnection lease = database.acquireReader();
+                 PreparedStatement pstmt = lease.getConnection().prepareStatement("SELECT username FROM Users");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    fresh.add(rs.getString(1));
+                    loaded++;
+                }
+            }
+            entries.set(loaded);
+            deletesSinceBuild.set(0);
+            filter = fresh;
+            rebuilds.increment();
+            return fresh;
+        } catch (SQLException e) {
+            // Keep the previous filter; without one every name is "possibly present" (query fallback)
+            System.err.println("Could not build the username filter: " + e.getMessage());
+            return filter;
+        } finally {
+            building = null;
+        }
+    }
+
+    private static long countRows(SQLiteConnection database) throws SQLException {
+        try (PooledConnection lease = database.acquireReader();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement("SELECT COUNT(*) FROM Users");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    String getStatistics() {
+        BloomFilter current = filter;
+        return String.format("Username filter: %s, %,d entries, %,d deletes pending | absent %,d, possibly present %,d, rebuilds %,d",
+                current == null ? "not built" : String.format("%,d bits/%d hashes", current.getBitCount(), current.getHashCount()),
+                entries.get(), deletesSinceBuild.get(), definitelyAbsent.sum(), possiblyPresent.sum(), rebuilds.sum());
+    }
+}
@@ -0,0 +1,56 @@
+package dao.sqlite;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical String instances for a low-cardinality column (job titles, membership levels).
+ * The JDBC driver creates a new String for every row it reads; mapping it through the dictionary
+ * keeps one shared instance per distinct value, so a large findAll() result holds a handful of
+ * strings for the column instead of one per row, and HashMap grouping on the column computes each
+ * key's hash once and matches keys by reference.
+ *
+ * The dictionary stops growing at maxEntries, after which unseen values are returned as they are,
+ * so a column that turns out to be high-cardinality cannot turn it into a memory leak.
+ */
+final class ValueDictionary {
+
+    private final String column;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+    /**
+     * @param column The column name (for diagnostics).
+     * @param maxEntries The most distinct values to keep.
+     */
+    ValueDictionary(String column, int maxEntries) {
+        this.column = column;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return The shared instance equal to value (value itself if it is new, null, or the dictionary is full).
+     */
+    String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = values.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (values.size() >= maxEntries) {
+            return value;
+        }
+        canonical = values.putIfAbsent(value, value);
+        return canonical == null ? value : canonical;
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    @Override
+    public String toString() {
+        return column + ": " + values.size() + " distinct values (limit " + maxEntries + ")";
+    }
+}
@@ -0,0 +1,16 @@
+package exception;
+
+/**
+ * Exception thrown when a write violates a uniqueness or other integrity constraint
+ * (e.g. saving an Employee whose ID already exists).
+ */
+public class DuplicateKeyException extends DataAccessException {
+
+    public DuplicateKeyException(String message) {
+        super(message);
+    }
+
+    public DuplicateKeyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
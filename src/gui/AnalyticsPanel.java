@@ -1,12 +1,17 @@
 package gui;
 
 import org.jfree.chart.renderer.category.BarRenderer;
+import service.DataChangeEvent;
 import service.ManagementService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.Vector;
@@ -37,120 +42,231 @@ public class AnalyticsPanel extends JPanel {
     private static final NumberFormat RAND_FORMATTER = NumberFormat.getCurrencyInstance(new Locale("en", "ZA"));
 
     private final ManagementService managementService;
+    private final MainFrame mainFrame;
     private JPanel metricsTablePanel;
     private JPanel visualizationsPanel;
 
-    public AnalyticsPanel(ManagementService service) {
+    // --- Long-lived chart data: refreshes update these in place instead of rebuilding the charts ---
+    private static final String METRICS_TABLE_CARD = "table";
+    private static final String METRICS_EMPTY_CARD = "empty";
+    private static final int MAX_JOB_TITLE_BARS = 12; // Smaller titles are summed into one bar
+    private static final String OTHER_JOB_TITLES = "All other titles";
+    private static final String EMPLOYEE_SERIES = "Employees";
+    private final DefaultTableModel salaryTableModel = new DefaultTableModel(new Object[]{"Job Title", "Average Salary"}, 0);
+    private final DefaultCategoryDataset employeeCountDataset = new DefaultCategoryDataset();
+    private final DefaultPieDataset<String> membershipDataset = new DefaultPieDataset<>();
+
+    // --- Staleness: the charts are recomputed only after the data changed (EDT-confined) ---
+    private long changeVersion = 0;
+    private long loadedVersion = -1;
+
+    /**
+     * The three result sets shown by the panel, queried together on a loader thread.
+     */
+    private static final class AnalyticsSnapshot {
+        private final Map<String, Double> averageSalaryByJobTitle;
+        private final Map<String, Integer> employeeCountByJobTitle;
+        private final Map<String, Integer> customerCountByMembershipLevel;
+
+        private AnalyticsSnapshot(ManagementService service) {
+            this.averageSalaryByJobTitle = service.getAverageSalaryByJobTitle();
+            this.employeeCountByJobTitle = service.getEmployeeCountByJobTitle();
+            this.customerCountByMembershipLevel = service.getCustomerCountByMembershipLevel();
+        }
+    }
+
+    public AnalyticsPanel(ManagementService service, MainFrame mainFrame) {
         this.managementService = service;
+        this.mainFrame = mainFrame;
         setLayout(new BorderLayout(10, 10));
 
         initComponents();
-        refreshAnalyticsContent(); // Load data on creation
+        // No query here: MainFrame requests refreshIfStale() whenever the tab is selected
+        mainFrame.addDataChangeListener(this::applyDataChange);
     }
 
     private void initComponents() {
         // --- 1. Top Metrics/Table Panel ---
-        metricsTablePanel = new JPanel(new BorderLayout());
+        metricsTablePanel = new JPanel(new CardLayout());
         metricsTablePanel.setBorder(BorderFactory.createTitledBorder("Average Salary by Job Title (Detailed Metrics)"));
+        metricsTablePanel.add(createSalaryTableScrollPane(), METRICS_TABLE_CARD);
+        metricsTablePanel.add(new JLabel("No employee data available for salary analysis."), METRICS_EMPTY_CARD);
         add(metricsTablePanel, BorderLayout.NORTH);
 
         // --- 2. Center Visualizations Panel ---
         // Uses GridLayout(1 row, 2 columns) to place the two charts side-by-side
+        // The charts are created once; refreshes only change their datasets
         visualizationsPanel = new JPanel(new GridLayout(1, 2, 10, 10));
         visualizationsPanel.setBorder(BorderFactory.createTitledBorder("Key Distributions"));
+        visualizationsPanel.add(createEmployeeCountChartPanel());
+        visualizationsPanel.add(createCustomerMembershipChartPanel());
         add(visualizationsPanel, BorderLayout.CENTER);
     }
 
     /**
-     * Public method to load all analytics data and refresh the UI.
-     * Called upon panel initialization and when the tab is switched to.
+     * Recomputes the analytics only if the data changed since they were last shown.
      */
-    public void refreshAnalyticsContent() {
-        loadJobTitleMetricsTable();
-
-        // Clear previous charts and load new ones
-        visualizationsPanel.removeAll();
-        visualizationsPanel.add(createEmployeeCountChartPanel());
-        visualizationsPanel.add(createCustomerMembershipChartPanel());
+    public void refreshIfStale() {
+        if (loadedVersion != changeVersion) {
+            refreshAnalyticsContent();
+        }
+    }
 
-        // Must call revalidate/repaint to redraw the panels
-        revalidate();
-        repaint();
+    /**
+     * Marks the charts stale; if they are on screen, a (coalesced) refresh is scheduled.
+     */
+    private void applyDataChange(DataChangeEvent<?> event) {
+        changeVersion++;
+        if (isShowing()) {
+            mainFrame.getRefreshScheduler().request(this, this::refreshIfStale);
+        }
     }
 
     /**
-     * Loads and displays text metrics (Average Salary) in a formatted JTable view.
+     * Public method to load all analytics data and refresh the UI.
+     * Called (through refreshIfStale) when the tab is switched to.
+     * The queries run on a loader thread; the datasets are updated on the EDT once they finish.
      */
-    private void loadJobTitleMetricsTable() {
-        metricsTablePanel.removeAll();
+    public void refreshAnalyticsContent() {
+        long version = changeVersion;
+        mainFrame.getBackgroundLoader().loadValue(this, "Analytics",
+                () -> new AnalyticsSnapshot(managementService), snapshot -> {
+                    loadedVersion = version; // Changes made while loading keep the panel stale
+                    showAnalytics(snapshot);
+                });
+    }
 
-        // Get data from the service layer (which delegates to AnalyticsEngine)
-        Map<String, Double> avgSalaries = managementService.getAverageSalaryByJobTitle();
+    private void showAnalytics(AnalyticsSnapshot snapshot) {
+        updateSalaryTable(snapshot.averageSalaryByJobTitle);
+        updateEmployeeCountDataset(snapshot.employeeCountByJobTitle);
+        updateMembershipDataset(snapshot.customerCountByMembershipLevel);
+        // The charts repaint themselves from the dataset change events
+    }
 
-        // Use TreeMap for sorted job titles for better presentation
-        Map<String, Double> sortedSalaries = new TreeMap<>(avgSalaries);
+    // =========================================================
+    // Incremental Updates
+    // =========================================================
 
-        if (sortedSalaries.isEmpty()) {
-            metricsTablePanel.add(new JLabel("No employee data available for salary analysis."), BorderLayout.CENTER);
+    /**
+     * Replaces the rows of the salary table with one model event (the JTable itself is kept).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void updateSalaryTable(Map<String, Double> avgSalaries) {
+        CardLayout cards = (CardLayout) metricsTablePanel.getLayout();
+        if (avgSalaries.isEmpty()) {
+            cards.show(metricsTablePanel, METRICS_EMPTY_CARD);
             return;
         }
 
-        // 1. Prepare Table Data
-        Vector<String> columnNames = new Vector<>();
-        columnNames.add("Job Title");
-        columnNames.add("Average Salary");
-
-        Vector<Vector<Object>> rowData = new Vector<>();
-
-        for (Map.Entry<String, Double> entry : sortedSalaries.entrySet()) {
-            Vector<Object> row = new Vector<>();
+        // Use TreeMap for sorted job titles for better presentation
+        Vector dataVector = salaryTableModel.getDataVector();
+        dataVector.clear();
+        for (Map.Entry<String, Double> entry : new TreeMap<>(avgSalaries).entrySet()) {
+            Vector<Object> row = new Vector<>(2);
             row.add(entry.getKey());
             // Format salary for currency display
             row.add(RAND_FORMATTER.format(entry.getValue()));
-            rowData.add(row);
+            dataVector.add(row);
+        }
+        salaryTableModel.fireTableDataChanged();
+        cards.show(metricsTablePanel, METRICS_TABLE_CARD);
+    }
+
+    /**
+     * Updates the bar chart's values in place. Notifications are suspended during the update so
+     * the chart redraws once, not once per bar. Categories are rebuilt only if the set of bars changed.
+     */
+    private void updateEmployeeCountDataset(Map<String, Integer> jobCounts) {
+        Map<String, Integer> bars = bucketJobTitles(jobCounts);
+        employeeCountDataset.setNotify(false);
+        try {
+            if (!employeeCountDataset.getColumnKeys().equals(new ArrayList<>(bars.keySet()))) {
+                employeeCountDataset.clear();
+            }
+            for (Map.Entry<String, Integer> entry : bars.entrySet()) {
+                // (Value, RowKey 'Series', ColumnKey 'Category'); existing bars keep their position
+                employeeCountDataset.setValue(entry.getValue(), EMPLOYEE_SERIES, entry.getKey());
+            }
+        } finally {
+            employeeCountDataset.setNotify(true); // Fires a single change event
+        }
+    }
+
+    /**
+     * Updates the pie chart's sections in place, with a single change notification.
+     */
+    private void updateMembershipDataset(Map<String, Integer> membershipCounts) {
+        membershipDataset.setNotify(false);
+        try {
+            for (String level : new ArrayList<>(membershipDataset.getKeys())) {
+                if (!membershipCounts.containsKey(level)) {
+                    membershipDataset.remove(level);
+                }
+            }
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(membershipCounts).entrySet()) {
+                membershipDataset.setValue(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            membershipDataset.setNotify(true);
         }
+    }
 
-        // 2. Create the JTable
-        DefaultTableModel tableModel = new DefaultTableModel(rowData, columnNames);
-        JTable table = new JTable(tableModel);
+    /**
+     * Keeps the largest job titles (sorted by name) and sums the rest into one "All other titles"
+     * bar, so the bar chart stays readable and cheap to render however many titles exist.
+     */
+    private static Map<String, Integer> bucketJobTitles(Map<String, Integer> jobCounts) {
+        if (jobCounts.size() <= MAX_JOB_TITLE_BARS) {
+            return new TreeMap<>(jobCounts);
+        }
+        List<Map.Entry<String, Integer>> bySize = new ArrayList<>(jobCounts.entrySet());
+        bySize.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> kept = new TreeMap<>();
+        int others = 0;
+        for (int i = 0; i < bySize.size(); i++) {
+            if (i < MAX_JOB_TITLE_BARS - 1) {
+                kept.put(bySize.get(i).getKey(), bySize.get(i).getValue());
+            } else {
+                others += bySize.get(i).getValue();
+            }
+        }
+        Map<String, Integer> bars = new LinkedHashMap<>(kept);
+        bars.put(OTHER_JOB_TITLES, others); // Always the last bar
+        return bars;
+    }
+
+    // =========================================================
+    // One-time Component Creation
+    // =========================================================
+
+    private JScrollPane createSalaryTableScrollPane() {
+        JTable table = new JTable(salaryTableModel);
         table.setEnabled(false); // Make it read-only
         table.getTableHeader().setReorderingAllowed(false);
 
-        // 3. Add to panel
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setPreferredSize(new Dimension(800, 150)); // Fixed size for the table area
-
-        metricsTablePanel.add(scrollPane, BorderLayout.CENTER);
-        metricsTablePanel.revalidate();
-        metricsTablePanel.repaint();
+        return scrollPane;
     }
 
     /**
-     * Generates and returns a ChartPanel for the Employee Count Bar Chart.
+     * Creates the Employee Count Bar Chart on the long-lived dataset.
      *
      */
     private ChartPanel createEmployeeCountChartPanel() {
-        Map<String, Integer> jobCounts = managementService.getEmployeeCountByJobTitle();
-
-        // 1. Create a JFreeChart Dataset
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        for (Map.Entry<String, Integer> entry : jobCounts.entrySet()) {
-            // Adds: (Value, RowKey 'Series', ColumnKey 'Category')
-            dataset.addValue(entry.getValue(), "Employees", entry.getKey());
-        }
-
-        // 2. Create the Bar Chart
+        // 1. Create the Bar Chart
         JFreeChart chart = ChartFactory.createBarChart(
                 "Employee Count by Job Title", // Chart title
                 "Job Title",                   // X-axis label
                 "Number of Employees",         // Y-axis label
-                dataset,                       // Data
+                employeeCountDataset,          // Data (updated in place)
                 PlotOrientation.VERTICAL,
                 false,                         // Hide legend
                 true,                          // Show tooltips
                 false                          // Hide URLs
         );
-
         // --- CRITICAL FIX: Ensure Y-axis displays only integers ---
         CategoryPlot plot = chart.getCategoryPlot();
         NumberAxis rangeAxis = (NumberAxis) plot.getRangeAxis();
@@ -180,22 +296,14 @@ public class AnalyticsPanel extends JPanel {
     }
 
     /**
-     * Generates and returns a ChartPanel for the Customer Membership Level Pie Chart.
+     * Creates the Customer Membership Level Pie Chart on the long-lived dataset.
      *
      */
     private ChartPanel createCustomerMembershipChartPanel() {
-        Map<String, Integer> membershipCounts = managementService.getCustomerCountByMembershipLevel();
-
-        // 1. Create a JFreeChart Dataset
-        DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
-        for (Map.Entry<String, Integer> entry : membershipCounts.entrySet()) {
-            dataset.setValue(entry.getKey(), entry.getValue());
-        }
-
-        // 2. Create the Pie Chart
+        // 1. Create the Pie Chart
         JFreeChart chart = ChartFactory.createPieChart(
                 "Customer Membership Level Distribution",
-                dataset,
+                membershipDataset,             // Data (updated in place)
                 true,                          // Show legend
                 true,                          // Show tooltips
                 false                          // Hide URLs
@@ -0,0 +1,281 @@
+package gui;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs the panels' database queries off the Event Dispatch Thread.
+ * Each load belongs to an owner (normally the panel). Starting a new load for an owner replaces
+ * the previous one, and MainFrame cancels the loads of panels the user switches away from; a
+ * cancelled load is remembered and restarted with resumeInterrupted() when the tab is shown again.
+ *
+ * Table loads stream the rows on a worker thread and append them to the model in chunks (one
+ * TableModelEvent per chunk, not per row), so the table fills progressively while the UI stays
+ * responsive. Progress and completion are reported through MainFrame.updateStatusBar().
+ *
+ * All public methods must be called on the Event Dispatch Thread.
+ */
+public class BackgroundLoader {
+
+    private static final int CHUNK_SIZE = 500; // Rows per publish
+    private static final int WORKER_THREADS = 3;
+
+    private final MainFrame mainFrame;
+    private final ExecutorService executor;
+
+    // EDT-confined bookkeeping
+    private final Map<Object, LoadWorker<?, ?>> running = new HashMap<>();
+    private final Map<Object, Runnable> interrupted = new HashMap<>();
+
+    public BackgroundLoader(MainFrame mainFrame) {
+        this.mainFrame = mainFrame;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "ecms-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); // Never keeps the JVM alive after the window closes
+            return thread;
+        });
+    }
+
+    // =========================================================
+    // STARTING LOADS
+    // =========================================================
+
+    /**
+     * Clears the table model and refills it from a stream of entities read on a worker thread.
+     * @param owner The panel the load belongs to.
+     * @param label Human-readable name for status messages (e.g. "Employee table").
+     * @param source Opens the stream (called on the worker thread; closed when the load ends).
+     * @param rowMapper Converts one entity to a table row (called on the worker thread).
+     * @param model The model to fill.
+     */
+    public <T> void loadRows(Object owner, String label, Supplier<Stream<T>> source,
+                             Function<T, Object[]> rowMapper, DefaultTableModel model) {
+        replace(owner);
+        model.setRowCount(0);
+        RowWorker<T> worker = new RowWorker<>(owner, label, source, rowMapper, model);
+        start(owner, worker, () -> loadRows(owner, label, source, rowMapper, model));
+        mainFrame.updateStatusBar("Loading " + label + "...", true);
+    }
+
+    /**
+     * Runs a query on a worker thread and hands the result to onLoaded on the EDT.
+     * @param owner The panel the load belongs to.
+     * @param label Human-readable name for status messages.
+     * @param query The (slow) query.
+     * @param onLoaded Applies the result to the UI; not called if the load is cancelled.
+     */
+    public <V> void loadValue(Object owner, String label, Callable<V> query, Consumer<V> onLoaded) {
+        replace(owner);
+        ValueWorker<V> worker = new ValueWorker<>(owner, label, query, onLoaded);
+        start(owner, worker, () -> loadValue(owner, label, query, onLoaded));
+        mainFrame.updateStatusBar("Loading " + label + "...", true);
+    }
+
+    // =========================================================
+    // CANCELLATION
+    // =========================================================
+
+    /**
+     * Cancels the owner's running load. It is restarted by resumeInterrupted(owner).
+     */
+    public void cancel(Object owner) {
+        LoadWorker<?, ?> worker = running.remove(owner);
+        if (worker != null) {
+            worker.cancel(false); // No interrupt: the worker stops at its next row boundary
+            interrupted.put(owner, worker.restart);
+            mainFrame.updateStatusBar("Loading " + worker.label + " cancelled.", true);
+        }
+    }
+
+    /**
+     * Cancels every running load except the one belonging to owner (pass null to cancel all).
+     */
+    public void cancelAllExcept(Object owner) {
+        for (Object other : new ArrayList<>(running.keySet())) {
+            if (other != owner) {
+                cancel(other);
+            }
+        }
+    }
+
+    /**
+     * Restarts the owner's load if it was cancelled before it finished.
+     * @return true if a load was restarted.
+     */
+    public boolean resumeInterrupted(Object owner) {
+        Runnable restart = interrupted.remove(owner);
+        if (restart != null) {
+            restart.run();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isLoading(Object owner) {
+        return running.containsKey(owner);
+    }
+
+    // =========================================================
+    // INTERNALS
+    // =========================================================
+
+    private void replace(Object owner) {
+        LoadWorker<?, ?> previous = running.remove(owner);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        interrupted.remove(owner);
+    }
+
+    private void start(Object owner, LoadWorker<?, ?> worker, Runnable restart) {
+        worker.restart = restart;
+        running.put(owner, worker);
+        executor.execute(worker);
+    }
+
+    /**
+     * Common completion handling: bookkeeping and status bar messages.
+     */
+    private abstract class LoadWorker<R, P> extends SwingWorker<R, P> {
+        final Object owner;
+        final String label;
+        final long startNanos = System.nanoTime();
+        Runnable restart;
+
+        LoadWorker(Object owner, String label) {
+            this.owner = owner;
+            this.label = label;
+        }
+
+        @Override
+        protected final void done() {
+            if (running.get(owner) == this) {
+                running.remove(owner);
+            }
+            if (isCancelled()) {
+                return; // Status already reported by cancel(); replaced loads stay silent
+            }
+            try {
+                R result = get();
+                onSuccess(result);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                mainFrame.updateStatusBar("Error loading " + label + ": " + cause.getMessage(), false);
+                System.err.println("Background load of " + label + " failed: " + cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long elapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+
+        abstract void onSuccess(R result);
+    }
+
+    /**
+     * Streams entities and appends them to a table model in chunks.
+     */
+    private final class RowWorker<T> extends LoadWorker<Long, List<Object[]>> {
+        private final Supplier<Stream<T>> source;
+        private final Function<T, Object[]> rowMapper;
+        private final DefaultTableModel model;
+        private long published = 0; // EDT-confined
+
+        RowWorker(Object owner, String label, Supplier<Stream<T>> source, Function<T, Object[]> rowMapper, DefaultTableModel model) {
+            super(owner, label);
+            this.source = source;
+            this.rowMapper = rowMapper;
+            this.model = model;
+        }
+
+        @Override
+        protected Long doInBackground() {
+            long count = 0;
+            try (Stream<T> stream = source.get()) {
+                List<Object[]> chunk = new ArrayList<>(CHUNK_SIZE);
+                Iterator<T> rows = stream.iterator();
+                while (rows.hasNext() && !isCancelled()) {
+                    chunk.add(rowMapper.apply(rows.next()));
+                    count++;
+                    if (chunk.size() == CHUNK_SIZE) {
+                        publish(chunk);
+                        chunk = new ArrayList<>(CHUNK_SIZE);
+                    }
+                }
+                if (!chunk.isEmpty() && !isCancelled()) {
+                    publish(chunk);
+                }
+            }
+            return count;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected void process(List<List<Object[]>> chunks) {
+            if (isCancelled()) return;
+
+            int firstRow = model.getRowCount();
+            Vector dataVector = model.getDataVector();
+            for (List<Object[]> chunk : chunks) {
+                for (Object[] row : chunk) {
+                    dataVector.add(new Vector<>(Arrays.asList(row)));
+                }
+                published += chunk.size();
+            }
+            int lastRow = model.getRowCount() - 1;
+            if (lastRow >= firstRow) {
+                model.fireTableRowsInserted(firstRow, lastRow);
+            }
+            mainFrame.updateStatusBar(String.format("Loading %s... %,d rows", label, published), true);
+        }
+
+        @Override
+        void onSuccess(Long rowCount) {
+            mainFrame.updateStatusBar(String.format("%s loaded successfully (%,d rows in %d ms).", label, rowCount, elapsedMillis()), true);
+        }
+    }
+
+    /**
+     * Runs a single query and applies its result on the EDT.
+     */
+    private final class ValueWorker<V> extends LoadWorker<V, Void> {
+        private final Callable<V> query;
+        private final Consumer<V> onLoaded;
+
+        ValueWorker(Object owner, String label, Callable<V> query, Consumer<V> onLoaded) {
+            super(owner, label);
+            this.query = query;
+            this.onLoaded = onLoaded;
+        }
+
+        @Override
+        protected V doInBackground() throws Exception {
+            return query.call();
+        }
+
+        @Override
+        void onSuccess(V result) {
+            onLoaded.accept(result);
+            mainFrame.updateStatusBar(label + " loaded successfully (" + elapsedMillis() + " ms).", true);
+        }
+    }
+}
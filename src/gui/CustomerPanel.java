@@ -1,12 +1,17 @@
 package gui;
 
+import exception.DataAccessException;
+import exception.DuplicateKeyException;
 import model.Customer;
+import service.DataChangeEvent;
 import service.ManagementService;
+import service.Permission;
+import service.Permissions;
 import util.CustomExceptions;
+import util.TimeOrderedIds;
 import java.time.format.DateTimeParseException;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -14,8 +19,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.ZoneId;
 import java.util.Date;
-import java.util.List;
-import java.util.UUID;
+import java.util.Comparator;
 import java.io.IOException;
 import java.io.File;
 
@@ -42,11 +46,19 @@ public class CustomerPanel extends JPanel {
     private JButton saveButton, deleteButton;
     private JButton exportButton;
     private JTable customerTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Customer> tableModel;
 
     private static final String[] MEMBERSHIP_LEVELS = {"Bronze", "Silver", "Gold", "Platinum"};
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    // --- Virtual table paging (rows are fetched from the DAO page by page while scrolling) ---
+    private static final String SORT_COLUMN = "name";
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 40;
+    private static final int PREFETCH_PAGES = 2;
+    // Must match the DAO's keyset order for SORT_COLUMN: (name, id)
+    private static final Comparator<Customer> SORT_ORDER = Comparator.comparing(Customer::getName).thenComparing(Customer::getId);
+
     public CustomerPanel(ManagementService service, MainFrame mainFrame) {
         this.managementService = service;
         this.mainFrame = mainFrame;
@@ -54,6 +66,7 @@ public class CustomerPanel extends JPanel {
 
         initComponents();
         loadCustomerData();
+        mainFrame.addDataChangeListener(this::applyDataChange);
 
         //applyRoleBasedAccessControl();
     }
@@ -138,12 +151,18 @@ public class CustomerPanel extends JPanel {
 
     private JScrollPane createTablePanel() {
         String[] columnNames = {"ID", "Name", "Age", "Membership", "Last Purchase Date"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column != 0;
-            }
-        };
+        tableModel = new PagedTableModel<>(columnNames,
+                (token, size) -> managementService.getCustomerPage(SORT_COLUMN, size, token),
+                (offset, size) -> managementService.getCustomerPageAt(SORT_COLUMN, offset, size),
+                cust -> new Object[]{
+                        cust.getId(),
+                        cust.getName(),
+                        cust.getAge(),
+                        cust.getMembershipLevel(),
+                        // Ensure date is handled safely, even if null in model
+                        cust.getLastPurchaseDate() != null ? cust.getLastPurchaseDate().toString() : "N/A"
+                },
+                SORT_ORDER, PAGE_SIZE, MAX_CACHED_PAGES, PREFETCH_PAGES);
 
         customerTable = new JTable(tableModel);
 
@@ -152,10 +171,8 @@ public class CustomerPanel extends JPanel {
                 populateFormFromTable(customerTable.getSelectedRow());
 
                 // Only enable the delete button if the user has CRUD access
-                String role = managementService.getAuthService().getActiveUser().getRole();
-                boolean hasCrudAccess = role.equals("Admin") || role.equals("Manager") || role.equals("Customer Service Agent");
-
-                deleteButton.setEnabled(hasCrudAccess); // <-- RBAC CHECK APPLIED HERE
+                deleteButton.setEnabled(managementService.getAuthService().getActivePermissions()
+                        .has(Permission.CUSTOMER_WRITE)); // <-- RBAC CHECK APPLIED HERE
             }
         });
 
@@ -166,31 +183,40 @@ public class CustomerPanel extends JPanel {
     // Data Loading and Mapping Methods
     // =========================================================
 
-    private void loadCustomerData() {
-        tableModel.setRowCount(0);
-
-        try { // <-- START Robustness: Try-catch for DAO call
-            List<Customer> customers = managementService.getAllCustomers();
-
-            for (Customer cust : customers) {
-                Object[] row = new Object[]{
-                        cust.getId(),
-                        cust.getName(),
-                        cust.getAge(),
-                        cust.getMembershipLevel(),
-                        // Ensure date is handled safely, even if null in model
-                        cust.getLastPurchaseDate() != null ? cust.getLastPurchaseDate().toString() : "N/A"
-                };
-                tableModel.addRow(row);
-            }
-            mainFrame.updateStatusBar("Customer table loaded successfully.", true); // <-- Status Bar Update (Success)
-
-        } catch (Exception ex) { // Catch DataAccessException or other issues
-            mainFrame.updateStatusBar("Error loading customer data: " + ex.getMessage(), false); // <-- Status Bar Update (Error)
+    /**
+     * Applies a change made through the ManagementService to the table: a save or delete touches
+     * one row instead of reloading the table. Bulk changes reload it (the row count is unknown).
+     */
+    private void applyDataChange(DataChangeEvent<?> event) {
+        DataChangeEvent<Customer> change = event.as(Customer.class);
+        if (change == null) {
+            return;
         }
+        if (change.getType() == DataChangeEvent.Type.CREATED) {
+            tableModel.applyCreated(change.getEntity());
+        } else if (change.getType() == DataChangeEvent.Type.UPDATED) {
+            tableModel.applyUpdated(change.getPrevious(), change.getEntity());
+        } else if (change.getType() == DataChangeEvent.Type.DELETED) {
+            tableModel.applyDeleted(change.getEntity());
+        } else {
+            // Bulk operations often come in bursts; reload once the burst is over
+            mainFrame.getRefreshScheduler().request(this, this::loadCustomerData);
+        }
+    }
+
+    /**
+     * Reloads the table: only the row count is queried (in the background); the rows
+     * themselves are fetched page by page by the PagedTableModel as they scroll into view.
+     */
+    private void loadCustomerData() {
+        mainFrame.getBackgroundLoader().loadValue(this, "Customer table",
+                managementService::countCustomers, tableModel::reset);
     }
 
     private void populateFormFromTable(int rowIndex) {
+        if (!tableModel.isRowLoaded(rowIndex)) {
+            return; // Page still loading; the row shows no data yet
+        }
         idField.setText(tableModel.getValueAt(rowIndex, 0).toString());
         nameField.setText(tableModel.getValueAt(rowIndex, 1).toString());
         ageField.setText(tableModel.getValueAt(rowIndex, 2).toString());
@@ -233,7 +259,7 @@ public class CustomerPanel extends JPanel {
     }
 
     private void handleSaveAction(ActionEvent e) {
-        String id = idField.getText().isEmpty() ? UUID.randomUUID().toString() : idField.getText();
+        String id = idField.getText().isEmpty() ? TimeOrderedIds.newId() : idField.getText();
         String name = nameField.getText();
 
         try {
@@ -259,19 +285,23 @@ public class CustomerPanel extends JPanel {
             if (idField.getText().isEmpty()) {
                 managementService.saveCustomer(customer);
                 JOptionPane.showMessageDialog(this, "Customer created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                managementService.updateCustomer(customer);
+            } else if (managementService.updateCustomer(customer)) {
                 JOptionPane.showMessageDialog(this, "Customer updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Customer ID " + id + " no longer exists; nothing was updated.", "Update Failed", JOptionPane.ERROR_MESSAGE);
+                return; // Keep the form so the data is not lost
             }
 
-            clearForm();
-            loadCustomerData();
-            mainFrame.refreshMetricsDashboard();
+            clearForm(); // The table and the dashboard are updated by the data change event
 
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Invalid number format for Age.", "Input Error", JOptionPane.ERROR_MESSAGE);
         } catch (IllegalArgumentException ex) {
             JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation Error", JOptionPane.WARNING_MESSAGE);
+        } catch (DuplicateKeyException ex) {
+            JOptionPane.showMessageDialog(this, "A customer with ID " + id + " already exists.", "Save Failed", JOptionPane.ERROR_MESSAGE);
+        } catch (DataAccessException ex) {
+            JOptionPane.showMessageDialog(this, "The customer was not saved: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -284,15 +314,17 @@ public class CustomerPanel extends JPanel {
                 "Confirm Delete", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = managementService.deleteCustomer(idToDelete);
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Customer deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                clearForm();
-                loadCustomerData();
-                mainFrame.refreshMetricsDashboard();
-
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to delete customer.", "Error", JOptionPane.ERROR_MESSAGE);
+            try {
+                boolean success = managementService.deleteCustomer(idToDelete);
+                if (success) {
+                    JOptionPane.showMessageDialog(this, "Customer deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    clearForm(); // The table and the dashboard are updated by the data change event
+
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to delete customer.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            } catch (DataAccessException ex) {
+                JOptionPane.showMessageDialog(this, "Failed to delete customer: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
@@ -352,16 +384,13 @@ public class CustomerPanel extends JPanel {
             return;
         }
 
-        // Retrieve the active user's role from the Authentication Service
-        String role = managementService.getAuthService().getActiveUser().getRole();
-
-        // Define which roles have CRUD privileges on CUSTOMER data
-        boolean hasCrudAccess = role.equals("Admin") ||
-                role.equals("Manager") ||
-                role.equals("Customer Service Agent");
+        // Retrieve the active user's compiled permissions from the Authentication Service
+        Permissions permissions = managementService.getAuthService().getActivePermissions();
+        String role = permissions.getRole();
 
+        boolean hasCrudAccess = permissions.has(Permission.CUSTOMER_WRITE);
         // Roles that only have Read access on this panel
-        boolean isReadOnly = role.equals("HR Specialist") || role.equals("Data Analyst");
+        boolean isReadOnly = permissions.has(Permission.CUSTOMER_READ);
 
         // Set state for the CRUD buttons and input fields
         if (hasCrudAccess) {
@@ -376,8 +405,7 @@ public class CustomerPanel extends JPanel {
         }
 
         // Data Analyst is the only Read-Only role allowed to Export. Manager and Admin also allowed.
-        boolean canExport = role.equals("Admin") || role.equals("Manager") || role.equals("Data Analyst");
-        exportButton.setEnabled(canExport);
+        exportButton.setEnabled(permissions.has(Permission.CUSTOMER_EXPORT));
     }
 
     /**
@@ -1,6 +1,11 @@
 package gui;
 
+import model.Customer;
+import model.Employee;
+import service.DataChangeEvent;
 import service.ManagementService;
+import service.Permission;
+import service.Permissions;
 import model.User;
 import javax.swing.*;
 import java.awt.*;
@@ -39,6 +44,23 @@ public class DashboardPanel extends JPanel {
     private JLabel[] statusLabels = new JLabel[4];
     private JLabel[] accessLabels = new JLabel[4];
 
+    // Permissions that together mean "Full Access", per tab index (1=Employee, 2=Customer, 3=Analytics, 4=Admin).
+    // Analytics covers both data sets, so only roles that can change both (Admin, Manager) get Full Access there.
+    private static final Permission[][] FULL_ACCESS_PERMISSIONS = {
+            {},
+            {Permission.EMPLOYEE_WRITE},
+            {Permission.CUSTOMER_WRITE},
+            {Permission.EMPLOYEE_WRITE, Permission.CUSTOMER_WRITE},
+            {Permission.USER_MANAGE}
+    };
+
+    private static final String SYSTEM_STATUS_TEXT = "Enterprise System Status: Online | Core Modules: 4/4 Operational";
+    private JLabel systemStatusLabel;
+
+    // --- Record counts: queried once, then kept current from data change deltas ---
+    private long employeeCount = -1; // -1 = not loaded yet
+    private long customerCount = -1;
+
 
     public DashboardPanel(ManagementService service, MainFrame mainFrame) {
         this.service = service;
@@ -49,6 +71,7 @@ public class DashboardPanel extends JPanel {
         setBorder(new EmptyBorder(50, 70, 50, 70));
 
         initComponents();
+        mainFrame.addDataChangeListener(this::applyDataChange);
     }
 
     private void initComponents() {
@@ -57,7 +80,7 @@ public class DashboardPanel extends JPanel {
         quadrantContainer = createQuadrantContainer();
         add(quadrantContainer, BorderLayout.CENTER);
 
-        JLabel systemStatusLabel = new JLabel("Enterprise System Status: Online | Core Modules: 4/4 Operational", JLabel.CENTER);
+        systemStatusLabel = new JLabel(SYSTEM_STATUS_TEXT, JLabel.CENTER);
         systemStatusLabel.setFont(new Font("Arial", Font.PLAIN, 12));
         systemStatusLabel.setForeground(Color.GRAY);
         add(systemStatusLabel, BorderLayout.SOUTH);
@@ -178,21 +201,17 @@ public class DashboardPanel extends JPanel {
     /**
      * Helper to determine the granular access status text for a module.
      */
-    private String getAccessStatusText(int tabIndex, String role) {
+    private String getAccessStatusText(int tabIndex, Permissions permissions) {
         // Tab Index: 1=Employee, 2=Customer, 3=Analytics, 4=Admin
         if (mainFrame.getTabbedPane().isEnabledAt(tabIndex)) {
             // Module is accessible (either Full or Read Only)
-            if (role.equals("Admin") || role.equals("Manager")) {
-                // Admins and Managers typically get full access to everything they can see.
-                return "Status: Full Access";
-            } else if (role.equals("HR Specialist") && tabIndex == 1) {
-                // HR Specialist has full access to Employee Management
-                return "Status: Full Access";
-            } else {
-                // Assume any other non-admin/non-manager access is Read Only by default
-                // for modules outside their primary expertise (e.g., HR viewing Customer)
-                return "Status: Read Only";
+            for (Permission required : FULL_ACCESS_PERMISSIONS[tabIndex]) {
+                if (!permissions.has(required)) {
+                    // Visible but without the module's write permission (e.g., Data Analyst viewing Customers)
+                    return "Status: Read Only";
+                }
             }
+            return "Status: Full Access";
         } else {
             // Module is entirely disabled for this role
             return "Status: Restricted";
@@ -225,6 +244,9 @@ public class DashboardPanel extends JPanel {
                         + "</html>";
 
         welcomeMessageLabel.setText(welcomeMessageHTML);
+        if (employeeCount < 0 || customerCount < 0) {
+            loadRecordCounts();
+        }
 
         // 2. Apply RBAC and Dynamic Status Update
         Component[] components = quadrantContainer.getComponents();
@@ -249,7 +271,7 @@ public class DashboardPanel extends JPanel {
                     boolean enabled = mainFrame.getTabbedPane().isEnabledAt(tabIndex);
 
                     // Get the dynamic status text
-                    String statusText = getAccessStatusText(tabIndex, role);
+                    String statusText = getAccessStatusText(tabIndex, service.getAuthService().getActivePermissions());
 
                     // Update the status and last accessed labels
                     statusLabels[i].setText(statusText);
@@ -276,4 +298,49 @@ public class DashboardPanel extends JPanel {
         revalidate();
         repaint();
     }
-}
\ No newline at end of file
+
+    // =========================================================
+    // Record Counts (updated from data change events)
+    // =========================================================
+
+    private void loadRecordCounts() {
+        mainFrame.getBackgroundLoader().loadValue(this, "Dashboard",
+                () -> new long[]{service.countEmployees(), service.countCustomers()},
+                counts -> {
+                    employeeCount = counts[0];
+                    customerCount = counts[1];
+                    updateRecordCounts();
+                });
+    }
+
+    /**
+     * Adjusts the counts by the single-row delta; bulk changes re-query them.
+     */
+    private void applyDataChange(DataChangeEvent<?> event) {
+        int delta = event.getType() == DataChangeEvent.Type.CREATED ? 1
+                : event.getType() == DataChangeEvent.Type.DELETED ? -1 : 0;
+        if (event.getType() == DataChangeEvent.Type.BULK_CHANGED) {
+            employeeCount = -1; // Reloaded the next time the dashboard is refreshed
+            customerCount = -1;
+            if (isShowing()) {
+                mainFrame.getRefreshScheduler().request(this, this::loadRecordCounts);
+            }
+            return;
+        }
+        if (employeeCount >= 0 && event.getEntityType() == Employee.class) {
+            employeeCount += delta;
+        } else if (customerCount >= 0 && event.getEntityType() == Customer.class) {
+            customerCount += delta;
+        }
+        updateRecordCounts();
+    }
+
+    private void updateRecordCounts() {
+        if (employeeCount < 0 || customerCount < 0) {
+            systemStatusLabel.setText(SYSTEM_STATUS_TEXT);
+            return;
+        }
+        systemStatusLabel.setText(String.format("%s | Employees: %,d | Customers: %,d",
+                SYSTEM_STATUS_TEXT, employeeCount, customerCount));
+    }
+}
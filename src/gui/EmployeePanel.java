@@ -1,15 +1,19 @@
 package gui;
 
+import exception.DataAccessException;
+import exception.DuplicateKeyException;
 import model.Employee;
+import service.DataChangeEvent;
 import service.ManagementService;
+import service.Permission;
+import service.Permissions;
+import util.TimeOrderedIds;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.util.List;
-import java.util.UUID;
+import java.util.Comparator;
 import java.io.IOException;
 import java.io.File;
 import java.text.NumberFormat;
@@ -32,7 +36,15 @@ public class EmployeePanel extends JPanel {
     private JButton saveButton, deleteButton;
     private JButton exportButton;
     private JTable employeeTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Employee> tableModel;
+
+    // --- Virtual table paging (rows are fetched from the DAO page by page while scrolling) ---
+    private static final String SORT_COLUMN = "name";
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 40;
+    private static final int PREFETCH_PAGES = 2;
+    // Must match the DAO's keyset order for SORT_COLUMN: (name, id)
+    private static final Comparator<Employee> SORT_ORDER = Comparator.comparing(Employee::getName).thenComparing(Employee::getId);
 
     // --- Dropdown Data (New) ---
     private static final String[] JOB_TITLES = {
@@ -47,6 +59,7 @@ public class EmployeePanel extends JPanel {
 
         initComponents();
         loadEmployeeData();
+        mainFrame.addDataChangeListener(this::applyDataChange);
 
         //applyRoleBasedAccessControl();
 
@@ -130,13 +143,17 @@ public class EmployeePanel extends JPanel {
     private JScrollPane createTablePanel() {
         // Define column headers
         String[] columnNames = {"ID", "Name", "Age", "Salary", "Job Title"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            // Override to make the ID column non-editable in the table
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column != 0;
-            }
-        };
+        tableModel = new PagedTableModel<>(columnNames,
+                (token, size) -> managementService.getEmployeePage(SORT_COLUMN, size, token),
+                (offset, size) -> managementService.getEmployeePageAt(SORT_COLUMN, offset, size),
+                emp -> new Object[]{
+                        emp.getId(),
+                        emp.getName(),
+                        emp.getAge(),
+                        formatSalary(emp.getSalary()), // Format salary for display
+                        emp.getJobTitle()
+                },
+                SORT_ORDER, PAGE_SIZE, MAX_CACHED_PAGES, PREFETCH_PAGES);
 
         employeeTable = new JTable(tableModel);
 
@@ -146,10 +163,8 @@ public class EmployeePanel extends JPanel {
                 populateFormFromTable(employeeTable.getSelectedRow());
 
                 // Only enable the delete button if the user has CRUD access
-                String role = managementService.getAuthService().getActiveUser().getRole();
-                boolean hasCrudAccess = role.equals("Admin") || role.equals("Manager") || role.equals("HR Specialist");
-
-                deleteButton.setEnabled(hasCrudAccess); // <-- RBAC CHECK APPLIED HERE
+                deleteButton.setEnabled(managementService.getAuthService().getActivePermissions()
+                        .has(Permission.EMPLOYEE_WRITE)); // <-- RBAC CHECK APPLIED HERE
             }
         });
 
@@ -160,32 +175,49 @@ public class EmployeePanel extends JPanel {
     // Data Loading and Mapping Methods (Unchanged)
     // =========================================================
 
-    public void loadEmployeeData() {
-        // Clear existing data
-        tableModel.setRowCount(0);
-
-        try { // <-- START Robustness: Try-catch for DAO call
-            // Get data from the Service layer (READ operation)
-            List<Employee> employees = managementService.getAllEmployees();
+    /**
+     * Applies a change made through the ManagementService to the table: a save or delete touches
+     * one row instead of reloading the table. Bulk changes reload it (the row count is unknown).
+     */
+    private void applyDataChange(DataChangeEvent<?> event) {
+        DataChangeEvent<Employee> change = event.as(Employee.class);
+        if (change == null) {
+            return;
+        }
+        if (change.getType() == DataChangeEvent.Type.CREATED) {
+            tableModel.applyCreated(change.getEntity());
+        } else if (change.getType() == DataChangeEvent.Type.UPDATED) {
+            tableModel.applyUpdated(change.getPrevious(), change.getEntity());
+        } else if (change.getType() == DataChangeEvent.Type.DELETED) {
+            tableModel.applyDeleted(change.getEntity());
+        } else {
+            // Bulk operations often come in bursts; reload once the burst is over
+            mainFrame.getRefreshScheduler().request(this, this::loadEmployeeData);
+        }
+    }
 
-            for (Employee emp : employees) {
-                Object[] row = new Object[]{
-                        emp.getId(),
-                        emp.getName(),
-                        emp.getAge(),
-                        RAND_FORMATTER.format(emp.getSalary()), // Format salary for display
-                        emp.getJobTitle()
-                };
-                tableModel.addRow(row);
-            }
-            mainFrame.updateStatusBar("Employee table loaded successfully.", true); // <-- Status Bar Update (Success)
+    /**
+     * Reloads the table: only the row count is queried (in the background); the rows
+     * themselves are fetched page by page by the PagedTableModel as they scroll into view.
+     */
+    public void loadEmployeeData() {
+        mainFrame.getBackgroundLoader().loadValue(this, "Employee table",
+                managementService::countEmployees, tableModel::reset);
+    }
 
-        } catch (Exception ex) { // Catches DataAccessException or other exceptions
-            mainFrame.updateStatusBar("Error loading employee data: " + ex.getMessage(), false); // <-- Status Bar Update (Error)
+    /**
+     * NumberFormat is not thread-safe and rows are mapped on a page loader thread.
+     */
+    private static String formatSalary(double salary) {
+        synchronized (RAND_FORMATTER) {
+            return RAND_FORMATTER.format(salary);
         }
     }
 
     private void populateFormFromTable(int rowIndex) {
+        if (!tableModel.isRowLoaded(rowIndex)) {
+            return; // Page still loading; the row shows no data yet
+        }
         idField.setText(tableModel.getValueAt(rowIndex, 0).toString());
         nameField.setText(tableModel.getValueAt(rowIndex, 1).toString());
         ageField.setText(tableModel.getValueAt(rowIndex, 2).toString());
@@ -222,8 +254,8 @@ public class EmployeePanel extends JPanel {
     }
 
     private void handleSaveAction(ActionEvent e) {
-        // NOTE: Keeping your original UUID generation, although typically database handles IDs.
-        String id = idField.getText().isEmpty() ? UUID.randomUUID().toString() : idField.getText();
+        // New IDs are time-ordered UUIDs, so inserts append to the end of the primary key index
+        String id = idField.getText().isEmpty() ? TimeOrderedIds.newId() : idField.getText();
         String name = nameField.getText();
 
         try {
@@ -237,22 +269,24 @@ public class EmployeePanel extends JPanel {
             if (idField.getText().isEmpty()) {
                 managementService.saveEmployee(employee); // CREATE
                 JOptionPane.showMessageDialog(this, "Employee created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                managementService.updateEmployee(employee); // UPDATE
+            } else if (managementService.updateEmployee(employee)) { // UPDATE
                 JOptionPane.showMessageDialog(this, "Employee updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Employee ID " + id + " no longer exists; nothing was updated.", "Update Failed", JOptionPane.ERROR_MESSAGE);
+                return; // Keep the form so the data is not lost
             }
 
-            clearForm();
-            loadEmployeeData(); // Refresh the table
-
-            // CRITICAL FIX: Refresh the Dashboard after successful save/update
-            mainFrame.refreshMetricsDashboard();
+            clearForm(); // The table and the dashboard are updated by the data change event
 
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Invalid number format for Age or Salary.", "Input Error", JOptionPane.ERROR_MESSAGE);
         } catch (IllegalArgumentException ex) {
             // This catches the validation error thrown by ManagementService
             JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation Error", JOptionPane.WARNING_MESSAGE);
+        } catch (DuplicateKeyException ex) {
+            JOptionPane.showMessageDialog(this, "An employee with ID " + id + " already exists.", "Save Failed", JOptionPane.ERROR_MESSAGE);
+        } catch (DataAccessException ex) {
+            JOptionPane.showMessageDialog(this, "The employee was not saved: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -272,10 +306,7 @@ public class EmployeePanel extends JPanel {
                 boolean success = managementService.deleteEmployee(idToDelete);
                 if (success) {
                     mainFrame.updateStatusBar("Employee deleted successfully. ID: " + idToDelete, true); // <-- Status Bar Success
-                    clearForm();
-                    loadEmployeeData(); // Refresh the table
-
-                    mainFrame.refreshMetricsDashboard();
+                    clearForm(); // The table and the dashboard are updated by the data change event
                 } else {
                     mainFrame.updateStatusBar("Error: Failed to delete employee. ID not found or data access issue.", false); // <-- Status Bar Error
                 }
@@ -330,9 +361,9 @@ public class EmployeePanel extends JPanel {
 // =========================================================
 
     /**
-     * Applies fine-grained control to the CRUD buttons based on the active user's role.
-     * Roles with CRUD access: Admin, Manager, HR Specialist
-     * Roles with Read-Only access: Data Analyst, Cust. Service Agent (though they shouldn't see this panel)
+     * Applies fine-grained control to the CRUD buttons based on the active user's permissions
+     * (see AccessPolicy for the role matrix).
+     * EMPLOYEE_WRITE: CRUD mode. EMPLOYEE_READ only: Read-Only mode. EMPLOYEE_EXPORT: Export button.
      */
     public void refreshAccessControls() {
         // Check if a user is logged in before attempting to get the role
@@ -342,16 +373,13 @@ public class EmployeePanel extends JPanel {
             return;
         }
 
-        // Retrieve the active user's role from the Authentication Service
-        String role = managementService.getAuthService().getActiveUser().getRole();
-
-        // Define which roles have CRUD privileges on EMPLOYEE data
-        boolean hasCrudAccess = role.equals("Admin") ||
-                role.equals("Manager") ||
-                role.equals("HR Specialist");
+        // Retrieve the active user's compiled permissions from the Authentication Service
+        Permissions permissions = managementService.getAuthService().getActivePermissions();
+        String role = permissions.getRole();
 
+        boolean hasCrudAccess = permissions.has(Permission.EMPLOYEE_WRITE);
         // Roles that only have Read access on this panel (but should see it)
-        boolean isReadOnly = role.equals("Data Analyst");
+        boolean isReadOnly = permissions.has(Permission.EMPLOYEE_READ);
 
         // Set state for the CRUD buttons and input fields
         if (hasCrudAccess) {
@@ -361,7 +389,7 @@ public class EmployeePanel extends JPanel {
         } else if (isReadOnly) {
             // Read-Only mode
             setCrudEnabled(false);
-            mainFrame.updateStatusBar("Employee Panel: Read-Only mode enabled for Data Analyst.", true);
+            mainFrame.updateStatusBar("Employee Panel: Read-Only mode enabled for " + role + ".", true);
         } else {
             // Any other role (e.g., Customer Service Agent) should ideally be blocked at the tab level,
             // but if they somehow bypass the MainFrame, we set them to Read-Only as a fallback.
@@ -370,7 +398,7 @@ public class EmployeePanel extends JPanel {
         }
 
         // Data Analyst role is allowed to Export for reporting purposes
-        exportButton.setEnabled(role.equals("Admin") || role.equals("Manager") || role.equals("HR Specialist") || role.equals("Data Analyst"));
+        exportButton.setEnabled(permissions.has(Permission.EMPLOYEE_EXPORT));
     }
 
     /**
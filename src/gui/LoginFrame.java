@@ -7,6 +7,7 @@ import model.User;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.util.concurrent.ExecutionException;
 
 // Assuming your MainFrame is also in the 'gui' package
 public class LoginFrame extends JFrame {
@@ -14,12 +15,16 @@ public class LoginFrame extends JFrame {
     private final AuthenticationService authService;
     private final JTextField usernameField;
     private final JPasswordField passwordField;
-    private final MainFrame mainFrame; // Reference to the main application window
-
-    public LoginFrame(MainFrame mainFrame) {
-        // Initialize the service and the main frame reference
+    private final JButton loginButton;
+    private MainFrame mainFrame; // Reference to the main application window (set once startup has finished)
+
+    /**
+     * Builds the login window. It can be shown while the database is still starting up:
+     * the Login button stays disabled until setMainFrame() is called.
+     */
+    public LoginFrame() {
+        // Initialize the service (the DAO opens no connection until it is used)
         this.authService = new AuthenticationService();
-        this.mainFrame = mainFrame;
 
         setTitle("Login - ECMS");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -28,7 +33,8 @@ public class LoginFrame extends JFrame {
         // --- Initialize Components ---
         usernameField = new JTextField(15);
         passwordField = new JPasswordField(15);
-        JButton loginButton = new JButton("Login");
+        loginButton = new JButton("Starting...");
+        loginButton.setEnabled(false);
 
         // --- Create Panel for Form ---
         JPanel formPanel = new JPanel(new GridLayout(3, 2, 10, 10));
@@ -49,37 +55,71 @@ public class LoginFrame extends JFrame {
         // --- Action Listener ---
         loginButton.addActionListener(this::handleLogin);
 
-        // --- Initial Admin Setup (CRUCIAL RUN-ONCE STEP) ---
-        // Creates the 'admin' user if it doesn't exist.
-        // Credentials: username="admin", password="password123", role="Admin"
-        authService.setupInitialAdmin("admin", "password123", "Admin");
-
+        // The initial admin account is created by Main's startup sequence, off the EDT
 
         pack();
         setLocationRelativeTo(null); // Center the window
     }
 
+    /**
+     * Connects the window to the main application once the database and services are ready,
+     * and enables logging in.
+     */
+    public void setMainFrame(MainFrame mainFrame) {
+        this.mainFrame = mainFrame;
+        loginButton.setText("Login");
+        loginButton.setEnabled(true);
+        getRootPane().setDefaultButton(loginButton);
+    }
+
+    /**
+     * Checks the credentials on a background thread (password hashing is deliberately slow)
+     * and finishes the login on the EDT.
+     */
     private void handleLogin(ActionEvent e) {
         String username = usernameField.getText();
         String password = new String(passwordField.getPassword());
 
-        try {
-            User loggedInUser = authService.login(username, password);
+        loginButton.setEnabled(false);
+        loginButton.setText("Checking...");
+        new SwingWorker<User, Void>() {
+            @Override
+            protected User doInBackground() throws Exception {
+                return authService.login(username, password);
+            }
+
+            @Override
+            protected void done() {
+                loginButton.setText("Login");
+                loginButton.setEnabled(true);
+                try {
+                    completeLogin(get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    showLoginError(ex.getCause() != null ? ex.getCause() : ex);
+                }
+            }
+        }.execute();
+    }
 
-            // Success:
-            JOptionPane.showMessageDialog(this, "Welcome, " + loggedInUser.getUsername() + "! You are logged in as " + loggedInUser.getRole() + ".", "Login Success", JOptionPane.INFORMATION_MESSAGE);
+    private void completeLogin(User loggedInUser) {
+        // Success:
+        JOptionPane.showMessageDialog(this, "Welcome, " + loggedInUser.getUsername() + "! You are logged in as " + loggedInUser.getRole() + ".", "Login Success", JOptionPane.INFORMATION_MESSAGE);
 
-            // 1. Tell the MainFrame who is logged in (for RBAC)
-            mainFrame.setActiveUser(loggedInUser);
-            // 2. Show the main application window
-            mainFrame.setVisible(true);
-            // 3. Close the login window
-            this.dispose();
+        // 1. Tell the MainFrame who is logged in (for RBAC)
+        mainFrame.setActiveUser(loggedInUser);
+        // 2. Show the main application window
+        mainFrame.setVisible(true);
+        // 3. Close the login window
+        this.dispose();
+    }
 
-        } catch (CustomExceptions.RecordNotFoundException | SecurityException ex) {
+    private void showLoginError(Throwable ex) {
+        if (ex instanceof CustomExceptions.RecordNotFoundException || ex instanceof SecurityException) {
             // Handles both "user not found" and "password incorrect" with a generic message
             JOptionPane.showMessageDialog(this, "Login Failed: Invalid username or password.", "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (Exception ex) {
+        } else {
             // Catch unexpected errors
             JOptionPane.showMessageDialog(this, "An unexpected system error occurred: " + ex.getMessage(), "System Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
@@ -1,48 +1,77 @@
 package gui;
 
-import dao.sqlite.SQLiteConnection; // <--- NEW IMPORT
+import dao.sqlite.SQLiteConnection;
 import service.ManagementService;
+import util.StartupTimer;
+
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The official entry point of the ECMS application.
  * Now manages the start-up sequence to enforce user authentication.
+ *
+ * Startup runs in two parallel lanes so the login window appears without waiting for the database:
+ * - Background ("ecms-startup" thread): open the database and create the schema (WAL mode, tables),
+ *   build the service layer and make sure the initial admin account exists.
+ * - Event Dispatch Thread: install the look-and-feel and show the login window. Its Login button is
+ *   enabled once the background lane has finished and the MainFrame has been built.
+ * Each phase is timed and logged (see StartupTimer), as is each tab that MainFrame builds on first use.
  */
 public class Main {
     public static void main(String[] args) {
+        StartupTimer startup = new StartupTimer();
 
-        // --- CRITICAL STEP: FORCE DATABASE INITIALIZATION ---
-        // This ensures the Singleton connection is established, the ecms_db.sqlite file
-        // is created, and all tables (including 'Users') are initialized immediately.
-        try {
-            SQLiteConnection.getInstance();
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null,
-                    "FATAL ERROR: Could not establish database connection or create tables: " + e.getMessage(),
-                    "Database Startup Failure", JOptionPane.ERROR_MESSAGE);
-            return; // Stop application launch if database fails
-        }
+        // --- Background lane: database, schema and services ---
+        CompletableFuture<ManagementService> backend = CompletableFuture.supplyAsync(() -> {
+            startup.time("Database and schema", SQLiteConnection::getInstance);
+            ManagementService service = startup.time("Service layer", ManagementService::new);
+            // Creates the 'admin' user if it doesn't exist (previously done by the LoginFrame constructor).
+            // Credentials: username="admin", password="password123", role="Admin"
+            startup.time("Initial admin check", () -> service.getAuthService().setupInitialAdmin("admin", "password123", "Admin"));
+            return service;
+        }, runnable -> new Thread(runnable, "ecms-startup").start());
 
-        // Swing applications must start on the Event Dispatch Thread (EDT)
+        // --- EDT lane: Swing applications must start on the Event Dispatch Thread ---
         SwingUtilities.invokeLater(() -> {
-            try {
-                // 1. Initialize the Service layer (now that the DB connection is confirmed)
-                ManagementService service = new ManagementService();
-
-                // 2. Initialize the MainFrame
-                MainFrame mainFrame = new MainFrame(service);
-
-                // 3. Start the application by displaying the Login window
-                new LoginFrame(mainFrame).setVisible(true);
+            startup.time("Look-and-feel", () -> {
+                try {
+                    // Same look as before; loading it explicitly here keeps the cost inside this phase
+                    UIManager.setLookAndFeel(UIManager.getCrossPlatformLookAndFeelClassName());
+                } catch (Exception e) {
+                    System.err.println("Could not install the look-and-feel: " + e.getMessage());
+                }
+            });
+            LoginFrame loginFrame = startup.time("Login window", LoginFrame::new);
+            loginFrame.setVisible(true);
+            startup.milestone("Login window shown");
 
-            } catch (Exception e) {
-                // Catch any fatal errors during initialization (e.g., Service/DAO creation failure)
-                JOptionPane.showMessageDialog(null,
-                        "Fatal application error during UI startup: " + e.getMessage(),
-                        "Initialization Failed", JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
+            // --- Join: build the MainFrame once the service layer is ready ---
+            backend.whenComplete((service, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    JOptionPane.showMessageDialog(loginFrame,
+                            "FATAL ERROR: Could not establish database connection or create tables: " + cause.getMessage(),
+                            "Database Startup Failure", JOptionPane.ERROR_MESSAGE);
+                    cause.printStackTrace();
+                    loginFrame.dispose();
+                    return; // Stop application launch if database fails
+                }
+                try {
+                    // Only the Dashboard tab is built here; the other tabs are built on first selection
+                    MainFrame mainFrame = startup.time("Main window", () -> new MainFrame(service, startup));
+                    loginFrame.setMainFrame(mainFrame);
+                    startup.milestone("Ready for login");
+                } catch (Exception e) {
+                    // Catch any fatal errors during initialization (e.g., Service/DAO creation failure)
+                    JOptionPane.showMessageDialog(loginFrame,
+                            "Fatal application error during UI startup: " + e.getMessage(),
+                            "Initialization Failed", JOptionPane.ERROR_MESSAGE);
+                    e.printStackTrace();
+                }
+            }));
         });
     }
-}
\ No newline at end of file
+}
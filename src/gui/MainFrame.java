@@ -1,9 +1,16 @@
 package gui;
 
+import service.DataChangeListener;
 import service.ManagementService;
+import service.Permission;
+import service.Permissions;
 import model.User;
+import util.StartupTimer;
 import javax.swing.*;
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 import gui.DashboardPanel;
 
 /**
@@ -30,11 +37,29 @@ public class MainFrame extends JFrame {
     private AnalyticsPanel analyticsPanel;
     private UserManagementPanel userManagementPanel;
 
+    // --- Lazily built tabs: tab index -> factory, removed once the panel has been built ---
+    private final Map<Integer, Supplier<JComponent>> pendingTabs = new HashMap<>();
+    private final StartupTimer startupTimer; // Also times the deferred tab builds
+
+    // --- Off-EDT data loading for all panels ---
+    private final BackgroundLoader backgroundLoader = new BackgroundLoader(this);
+
+    // --- Coalesces analytics/dashboard/table refreshes (bulk edits, rapid tab switching) ---
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler();
+
     // --- RBAC Controlled Components (Examples) ---
     private JMenuItem logoutMenuItem;
 
     public MainFrame(ManagementService service) {
+        this(service, new StartupTimer());
+    }
+
+    /**
+     * @param startupTimer The application's startup timer; building a lazy tab is logged as a phase of it.
+     */
+    public MainFrame(ManagementService service, StartupTimer startupTimer) {
         this.managementService = service;
+        this.startupTimer = startupTimer;
 
         // --- 1. Basic Frame Setup ---
         setTitle("ECMS - Employee & Customer Management System (Logged Out)");
@@ -53,53 +78,67 @@ public class MainFrame extends JFrame {
     private void initComponents() {
         tabbedPane = new JTabbedPane();
 
+        // Add the Status/Notification Bar (Requirement 1)
+        // Created before the panels, which report their background loading progress in it
+        statusBar = new JLabel(" ECMS Application Ready (Version 1.0) ");
+        statusBar.setOpaque(true); // Required to show the background color
+        statusBar.setBackground(Color.LIGHT_GRAY);
+        statusBar.setForeground(Color.BLACK);
+        statusBar.setHorizontalAlignment(SwingConstants.LEFT);
+        add(statusBar, BorderLayout.SOUTH);
+
         // Initialize the sub-panels (passing the ManagementService to them)
+        // Only the Dashboard is built now; every other panel (and its queries) is built the first
+        // time its tab is selected, so startup does not pay for tabs the user never opens.
         // 1. DASHBOARD PANEL (The new default home screen)
         dashboardPanel = new DashboardPanel(managementService, this);
 
-        employeePanel = new EmployeePanel(managementService, this);
-        customerPanel = new CustomerPanel(managementService, this);
-        analyticsPanel = new AnalyticsPanel(managementService);
-        userManagementPanel = new UserManagementPanel(managementService, this);
-
         // Add the panels to the tabbed pane in the desired order
         // Tab 0: Dashboard (The new default)
         tabbedPane.addTab("Dashboard", createIcon("home"), dashboardPanel);
 
         // Tab 1: Employee Management
-        tabbedPane.addTab("Employee Management", createIcon("employee"), employeePanel);
+        addLazyTab("Employee Management", "employee", () -> {
+            employeePanel = new EmployeePanel(managementService, this);
+            employeePanel.refreshAccessControls();
+            return employeePanel;
+        });
 
         // Tab 2: Customer Management
-        tabbedPane.addTab("Customer Management", createIcon("customer"), customerPanel);
+        addLazyTab("Customer Management", "customer", () -> {
+            customerPanel = new CustomerPanel(managementService, this);
+            customerPanel.refreshAccessControls();
+            return customerPanel;
+        });
 
         // Tab 3: Analytics & Reporting
-        tabbedPane.addTab("Analytics & Reporting", createIcon("analytics"), analyticsPanel);
+        addLazyTab("Analytics & Reporting", "analytics", () -> analyticsPanel = new AnalyticsPanel(managementService, this));
 
         // Tab 4: User Management (Admin Only)
-        tabbedPane.addTab("User Management", createIcon("admin"), userManagementPanel);
+        addLazyTab("User Management", "admin", () -> userManagementPanel = new UserManagementPanel(managementService, this));
 
         // Add the tabbed pane to the frame
         add(tabbedPane, BorderLayout.CENTER);
 
-        // Add the Status/Notification Bar (Requirement 1)
-        // Add the Status/Notification Bar (Requirement 1)
-        statusBar = new JLabel(" ECMS Application Ready (Version 1.0) ");
-        statusBar.setOpaque(true); // Required to show the background color
-        statusBar.setBackground(Color.LIGHT_GRAY);
-        statusBar.setForeground(Color.BLACK);
-        statusBar.setHorizontalAlignment(SwingConstants.LEFT);
-        add(statusBar, BorderLayout.SOUTH);
-
         // Add the Change Listener to refresh data ---
         tabbedPane.addChangeListener(e -> {
+            // Build the tab's panel on first selection (it starts loading its own data)
+            buildTabIfPending(tabbedPane.getSelectedIndex());
+
+            // Stop loading data for tabs the user has left; finish loads the new tab still needs
+            Component selected = tabbedPane.getSelectedComponent();
+            backgroundLoader.cancelAllExcept(selected);
+
             // Check if the selected component is the AnalyticsPanel
-            if (tabbedPane.getSelectedComponent() == analyticsPanel) {
-                // CORRECTED METHOD CALL: Uses the name defined in AnalyticsPanel
-                analyticsPanel.refreshAnalyticsContent();
+            if (selected == analyticsPanel) {
+                // Recomputes only if the data changed since the charts were built
+                refreshScheduler.request(analyticsPanel, analyticsPanel::refreshIfStale);
             }
             // Optional: You may want to refresh the Dashboard when switching back to it
-            else if (tabbedPane.getSelectedComponent() == dashboardPanel) {
+            else if (selected == dashboardPanel) {
                 dashboardPanel.refreshDashboardContent();
+            } else {
+                backgroundLoader.resumeInterrupted(selected);
             }
         });
 
@@ -136,6 +175,36 @@ public class MainFrame extends JFrame {
         statusBar.setForeground(Color.BLACK);
     }
 
+    /**
+     * Adds a tab with an empty placeholder; the factory builds the real panel on first selection.
+     */
+    private void addLazyTab(String title, String iconName, Supplier<JComponent> factory) {
+        tabbedPane.addTab(title, createIcon(iconName), new JPanel());
+        pendingTabs.put(tabbedPane.getTabCount() - 1, factory);
+    }
+
+    private void buildTabIfPending(int index) {
+        Supplier<JComponent> factory = pendingTabs.remove(index);
+        if (factory == null) {
+            return;
+        }
+        startupTimer.time("Tab: " + tabbedPane.getTitleAt(index), () -> tabbedPane.setComponentAt(index, factory.get()));
+    }
+
+    /**
+     * @return The loader used by the panels to run their queries off the Event Dispatch Thread.
+     */
+    public BackgroundLoader getBackgroundLoader() {
+        return backgroundLoader;
+    }
+
+    /**
+     * @return The scheduler panels use to coalesce expensive refreshes.
+     */
+    public RefreshScheduler getRefreshScheduler() {
+        return refreshScheduler;
+    }
+
     /**
      * Resets the status bar to its default "Application Ready" state.
      */
@@ -207,13 +276,17 @@ public class MainFrame extends JFrame {
     }
 
     /**
-     * Triggers a refresh of the dashboard metrics.
-     * Called by sub-panels (Employee/Customer) after a successful save or delete operation.
+     * Subscribes a panel to the ManagementService's data change events, delivered on the EDT.
+     * Replaces the full reloads the panels used to run after each save or delete.
      */
-    public void refreshMetricsDashboard() {
-        if (dashboardPanel != null) {
-            dashboardPanel.refreshDashboardContent();
-        }
+    public void addDataChangeListener(DataChangeListener listener) {
+        managementService.addDataChangeListener(event -> {
+            if (SwingUtilities.isEventDispatchThread()) {
+                listener.onDataChanged(event);
+            } else {
+                SwingUtilities.invokeLater(() -> listener.onDataChanged(event));
+            }
+        });
     }
 
     /**
@@ -222,7 +295,7 @@ public class MainFrame extends JFrame {
      */
     private void applyRoleBasedAccessControl() {
         boolean isLoggedIn = (activeUser != null);
-        String role = isLoggedIn ? activeUser.getRole() : "";
+        Permissions permissions = managementService.getAuthService().getActivePermissions();
 
         // 1. Update Title and Logout Button State
         if (isLoggedIn) {
@@ -238,19 +311,19 @@ public class MainFrame extends JFrame {
 
         // Employee Management (Index 1) Access: Admin, Manager, HR Specialist, Data Analyst (Read Only)
         // All these roles need to see the Employee Panel for their function.
-        boolean canViewEmployees = role.equals("Admin") || role.equals("Manager") || role.equals("HR Specialist") || role.equals("Data Analyst");
+        boolean canViewEmployees = permissions.has(Permission.EMPLOYEE_READ);
         tabbedPane.setEnabledAt(1, canViewEmployees); // Employee Tab
 
         // Customer Management (Index 2) Access: Admin, Manager, Cust. Service Agent, Data Analyst (Read Only)
-        boolean canViewCustomers = role.equals("Admin") || role.equals("Manager") || role.equals("Customer Service Agent") || role.equals("Data Analyst");
+        boolean canViewCustomers = permissions.has(Permission.CUSTOMER_READ);
         tabbedPane.setEnabledAt(2, canViewCustomers); // Customer Tab
 
         // Analytics & Reporting (Index 3) Access: Admin, Manager, Data Analyst, HR Specialist (HR Specialist will see limited data, but the tab is enabled)
-        boolean canViewAnalytics = role.equals("Admin") || role.equals("Manager") || role.equals("Data Analyst") || role.equals("HR Specialist");
+        boolean canViewAnalytics = permissions.has(Permission.ANALYTICS_VIEW);
         tabbedPane.setEnabledAt(3, canViewAnalytics); // Analytics Tab
 
         // User Management (Index 4) is restricted to Admin only
-        boolean canManageUsers = role.equals("Admin");
+        boolean canManageUsers = permissions.has(Permission.USER_MANAGE);
         tabbedPane.setEnabledAt(4, canManageUsers);
 
         // 3. Ensure the selected tab is accessible
@@ -268,14 +341,18 @@ public class MainFrame extends JFrame {
     public void handleLogout() {
         // Clear the user, reset controls, and re-launch login screen
         this.activeUser = null;
+        managementService.getAuthService().logout(); // Also drops the compiled permissions
+        backgroundLoader.cancelAllExcept(null);
+        refreshScheduler.cancelAll();
         applyRoleBasedAccessControl();
 
         this.setVisible(false); // Hide the MainFrame
 
         // Start a new LoginFrame (passing the same MainFrame instance for re-use)
-        // NOTE: You must ensure your LoginFrame constructor accepts a MainFrame argument.
         // Assuming you have a LoginFrame class available:
-        // new LoginFrame(this).setVisible(true);
+        // LoginFrame loginFrame = new LoginFrame();
+        // loginFrame.setMainFrame(this);
+        // loginFrame.setVisible(true);
         System.out.println("User logged out successfully.");
     }
 
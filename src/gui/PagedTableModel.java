@@ -0,0 +1,476 @@
+package gui;
+
+import dao.Page;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * A virtual table model that only knows the row count up front and loads fixed-size pages from
+ * the DAO as the JTable asks for the rows in its viewport.
+ *
+ * - Loaded pages are kept in an LRU window of maxPages pages, so memory is bounded for any table size.
+ * - When a page is requested, the next prefetchPages pages are queued too, so scrolling down rarely
+ *   waits. The most recently requested page is loaded first (fast scrolling skips stale pages).
+ * - Pages are read with keyset pagination when the token of the previous page is known (sequential
+ *   scrolling) and with an OFFSET query otherwise (jumping with the scrollbar).
+ * - Rows not loaded yet are shown as "Loading..." and repainted when their page arrives.
+ * - Single-row changes (applyCreated/applyUpdated/applyDeleted) are applied in place using the sort
+ *   order: only the affected row is repainted, and only the cached pages after it (whose rows shifted
+ *   by one) are dropped and reloaded when they are shown again.
+ *
+ * Pages load on a dedicated daemon thread, one at a time. All other methods must be called on the EDT.
+ * @param <T> The type of the entity shown in each row.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    /**
+     * Fetches the page following a continuation token (null for the first page).
+     */
+    @FunctionalInterface
+    public interface KeysetFetcher<T> {
+        Page<T> fetch(String continuationToken, int pageSize);
+    }
+
+    /**
+     * Fetches the page starting at an absolute row position.
+     */
+    @FunctionalInterface
+    public interface OffsetFetcher<T> {
+        Page<T> fetch(long offset, int pageSize);
+    }
+
+    private static final String LOADING_TEXT = "Loading...";
+    private static final int MAX_START_TOKENS = 10_000; // Bounded; missing tokens fall back to OFFSET
+
+    private final String[] columnNames;
+    private final KeysetFetcher<T> keysetFetcher;
+    private final OffsetFetcher<T> offsetFetcher;
+    private final Function<T, Object[]> rowMapper;
+    private final Comparator<T> sortOrder;
+    private final int pageSize;
+    private final int prefetchPages;
+    private final int maxQueuedPages;
+
+    private final ExecutorService loader;
+
+    // --- EDT-confined state ---
+    private int rowCount = 0;
+    private long generation = 0; // Bumped by reset(); results of older loads are discarded
+    private final LinkedHashMap<Integer, LoadedPage<T>> pages;
+    private final LinkedHashMap<Integer, String> startTokens; // Page index -> token that starts it
+    private final Deque<Integer> queue = new ArrayDeque<>(); // Front = most urgent
+    private final Set<Integer> queued = new HashSet<>();
+    private Integer loadingPage = null;
+
+    /**
+     * One loaded page: the entities and their pre-mapped table rows (kept in the same order).
+     */
+    private static final class LoadedPage<T> {
+        private final List<T> items;
+        private final List<Object[]> rows;
+
+        private LoadedPage(List<T> items, List<Object[]> rows) {
+            this.items = items;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Where an entity sits relative to the loaded pages.
+     * row is its (insertion) position; exact is false when it falls between pages that are not
+     * loaded, in which case row is only the start of the first page that may have changed.
+     */
+    private static final class Position {
+        private final int row;
+        private final boolean exact;
+        private final boolean found;
+
+        private Position(int row, boolean exact, boolean found) {
+            this.row = row;
+            this.exact = exact;
+            this.found = found;
+        }
+    }
+
+    /**
+     * @param columnNames Column headers.
+     * @param keysetFetcher Loads the page after a continuation token.
+     * @param offsetFetcher Loads the page at an absolute row position.
+     * @param rowMapper Converts an entity to its row values (called on the loader thread).
+     * @param sortOrder The order the fetchers return rows in (used to place created/updated rows).
+     * @param pageSize Rows per page.
+     * @param maxPages Maximum number of pages kept in memory (must cover the viewport plus prefetch).
+     * @param prefetchPages Number of pages loaded ahead of the requested one.
+     */
+    public PagedTableModel(String[] columnNames, KeysetFetcher<T> keysetFetcher, OffsetFetcher<T> offsetFetcher,
+                           Function<T, Object[]> rowMapper, Comparator<T> sortOrder,
+                           int pageSize, int maxPages, int prefetchPages) {
+        if (pageSize <= 0 || maxPages <= prefetchPages + 1) {
+            throw new IllegalArgumentException("Page window too small: pageSize=" + pageSize
+                    + ", maxPages=" + maxPages + ", prefetchPages=" + prefetchPages);
+        }
+        this.columnNames = columnNames.clone();
+        this.keysetFetcher = keysetFetcher;
+        this.offsetFetcher = offsetFetcher;
+        this.rowMapper = rowMapper;
+        this.sortOrder = sortOrder;
+        this.pageSize = pageSize;
+        this.prefetchPages = prefetchPages;
+        this.maxQueuedPages = maxPages - 1;
+
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, LoadedPage<T>> eldest) {
+                return size() > maxPages;
+            }
+        };
+        this.startTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > MAX_START_TOKENS;
+            }
+        };
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ecms-page-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // =========================================================
+    // TABLE MODEL
+    // =========================================================
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Edits go through the panel's form
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / pageSize;
+        requestWithPrefetch(pageIndex);
+        LoadedPage<T> page = pages.get(pageIndex);
+        if (page == null) {
+            return column == 0 ? LOADING_TEXT : null;
+        }
+        int offsetInPage = row - pageIndex * pageSize;
+        if (offsetInPage >= page.rows.size()) {
+            // The page lost a row to a delete and is being reloaded
+            return column == 0 ? LOADING_TEXT : null;
+        }
+        return page.rows.get(offsetInPage)[column];
+    }
+
+    // =========================================================
+    // PUBLIC API
+    // =========================================================
+
+    /**
+     * Drops every loaded page and starts over with a new row count (e.g. after data changed).
+     */
+    public void reset(long newRowCount) {
+        generation++;
+        rowCount = (int) Math.min(newRowCount, Integer.MAX_VALUE);
+        pages.clear();
+        startTokens.clear();
+        queue.clear();
+        queued.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * @return true if the row's page is in memory (getEntityAt and getValueAt return real data).
+     */
+    public boolean isRowLoaded(int row) {
+        LoadedPage<T> page = pages.get(row / pageSize);
+        return page != null && row % pageSize < page.rows.size();
+    }
+
+    /**
+     * @return The entity shown in the row, or null if its page is not loaded.
+     */
+    public T getEntityAt(int row) {
+        LoadedPage<T> page = pages.get(row / pageSize);
+        int offsetInPage = row % pageSize;
+        return page != null && offsetInPage < page.items.size() ? page.items.get(offsetInPage) : null;
+    }
+
+    /**
+     * @return The number of pages currently held in memory.
+     */
+    public int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    // =========================================================
+    // SINGLE-ROW CHANGES
+    // =========================================================
+
+    /**
+     * Inserts a newly created entity at its sort position.
+     */
+    public void applyCreated(T entity) {
+        generation++; // Pages being read right now may predate the change
+        Position position = locate(entity);
+        int changedPage = position.row / pageSize;
+        if (position.exact) {
+            LoadedPage<T> page = pages.get(changedPage);
+            if (page != null) {
+                int offsetInPage = position.row - changedPage * pageSize;
+                page.items.add(offsetInPage, entity);
+                page.rows.add(offsetInPage, rowMapper.apply(entity));
+                if (page.items.size() > pageSize) {
+                    // The last row moves on to the next page
+                    page.items.remove(pageSize);
+                    page.rows.remove(pageSize);
+                }
+            }
+        }
+        rowCount++;
+        dropPagesAfter(position.exact ? changedPage : changedPage - 1);
+        fireTableRowsInserted(position.row, position.row);
+    }
+
+    /**
+     * Replaces an updated entity. If its sort key changed, the row is moved to its new position.
+     * @param previous The entity before the update. The service always supplies it; null (unknown)
+     * only re-reads the loaded rows and never inserts one.
+     */
+    public void applyUpdated(T previous, T entity) {
+        if (previous == null) {
+            refreshLoadedRows();
+            return;
+        }
+        if (sortOrder.compare(previous, entity) != 0) {
+            applyDeleted(previous);
+            applyCreated(entity);
+            return;
+        }
+        generation++;
+        Position position = locate(previous);
+        if (position.found) {
+            int pageIndex = position.row / pageSize;
+            int offsetInPage = position.row - pageIndex * pageSize;
+            LoadedPage<T> page = pages.get(pageIndex);
+            page.items.set(offsetInPage, entity);
+            page.rows.set(offsetInPage, rowMapper.apply(entity));
+            fireTableRowsUpdated(position.row, position.row);
+        }
+        // Not cached: the row is read with its new values when it is next shown
+    }
+
+    /**
+     * Removes a deleted entity.
+     */
+    public void applyDeleted(T entity) {
+        if (rowCount == 0) {
+            return;
+        }
+        generation++;
+        Position position = locate(entity);
+        int changedPage = position.row / pageSize;
+        int row = Math.min(position.row, rowCount - 1);
+        if (position.found) {
+            int offsetInPage = position.row - changedPage * pageSize;
+            LoadedPage<T> page = pages.get(changedPage);
+            page.items.remove(offsetInPage);
+            page.rows.remove(offsetInPage);
+            // The page is now one row short; getValueAt reloads it when the gap is shown
+        }
+        rowCount--;
+        dropPagesAfter(position.found ? changedPage : changedPage - 1);
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Drops every cached page but keeps the row count (the rows are re-read when shown).
+     */
+    public void refreshLoadedRows() {
+        generation++;
+        pages.clear();
+        startTokens.clear();
+        queue.clear();
+        queued.clear();
+        if (rowCount > 0) {
+            fireTableRowsUpdated(0, rowCount - 1);
+        }
+    }
+
+    /**
+     * Finds where the entity is (or would be inserted) using the sort order and the loaded pages.
+     */
+    private Position locate(T entity) {
+        List<Integer> loaded = new ArrayList<>(pages.keySet());
+        Collections.sort(loaded);
+        int lastPage = rowCount == 0 ? 0 : (rowCount - 1) / pageSize;
+        int previousIndex = -1; // Last loaded page that lies entirely before the entity
+
+        for (int pageIndex : loaded) {
+            List<T> items = pages.get(pageIndex).items;
+            if (items.isEmpty()) {
+                continue;
+            }
+            int start = pageIndex * pageSize;
+            if (sortOrder.compare(entity, items.get(items.size() - 1)) > 0) {
+                previousIndex = pageIndex;
+                if (pageIndex == lastPage) {
+                    return new Position(start + items.size(), true, false); // After the last row
+                }
+                continue;
+            }
+            if (sortOrder.compare(entity, items.get(0)) >= 0 || previousIndex == pageIndex - 1) {
+                // Inside this page, or right between it and the (loaded) page before it
+                int search = Collections.binarySearch(items, entity, sortOrder);
+                return search >= 0
+                        ? new Position(start + search, true, true)
+                        : new Position(start - search - 1, true, false);
+            }
+            break; // Somewhere in the unloaded pages before this one
+        }
+        int firstUnknownPage = previousIndex + 1;
+        return new Position(Math.min(firstUnknownPage * pageSize, rowCount), false, false);
+    }
+
+    /**
+     * Drops the cached pages (and start tokens) after the given page: their rows shifted by one.
+     */
+    private void dropPagesAfter(int pageIndex) {
+        for (Iterator<Integer> it = pages.keySet().iterator(); it.hasNext(); ) {
+            if (it.next() > pageIndex) {
+                it.remove();
+            }
+        }
+        startTokens.keySet().removeIf(index -> index > pageIndex); // Token k is the last key of page k-1
+        queue.clear();
+        queued.clear();
+    }
+
+    // =========================================================
+    // PAGE LOADING
+    // =========================================================
+
+    private void requestWithPrefetch(int pageIndex) {
+        int lastPage = (rowCount - 1) / pageSize;
+        // Queue the prefetch pages first so the requested page ends up at the front of the queue
+        for (int ahead = Math.min(pageIndex + prefetchPages, lastPage); ahead > pageIndex; ahead--) {
+            request(ahead);
+        }
+        request(pageIndex);
+        pump();
+    }
+
+    private boolean isPageComplete(int pageIndex) {
+        LoadedPage<T> page = pages.get(pageIndex);
+        return page != null && page.rows.size() >= Math.min(pageSize, rowCount - pageIndex * pageSize);
+    }
+
+    private void request(int pageIndex) {
+        if (isPageComplete(pageIndex) || Integer.valueOf(pageIndex).equals(loadingPage)) {
+            return;
+        }
+        if (queued.contains(pageIndex)) {
+            if (Integer.valueOf(pageIndex).equals(queue.peekFirst())) return;
+            queue.remove(pageIndex); // Move to the front: it is wanted again now
+        }
+        queue.addFirst(pageIndex);
+        queued.add(pageIndex);
+        // Requests that have waited longest are for rows that scrolled out of view; drop them
+        while (queue.size() > maxQueuedPages) {
+            queued.remove(queue.pollLast());
+        }
+    }
+
+    private void pump() {
+        if (loadingPage != null || queue.isEmpty()) {
+            return;
+        }
+        int pageIndex = queue.pollFirst();
+        queued.remove(pageIndex);
+        loadingPage = pageIndex;
+
+        long loadGeneration = generation;
+        String startToken = pageIndex == 0 ? null : startTokens.get(pageIndex);
+        boolean sequential = pageIndex == 0 || startToken != null;
+
+        loader.execute(() -> {
+            Page<T> page = null;
+            List<Object[]> rows = null;
+            RuntimeException failure = null;
+            try {
+                page = sequential
+                        ? keysetFetcher.fetch(startToken, pageSize)
+                        : offsetFetcher.fetch((long) pageIndex * pageSize, pageSize);
+                rows = new ArrayList<>(page.size());
+                for (T item : page.getItems()) {
+                    rows.add(rowMapper.apply(item));
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            Page<T> loaded = page;
+            List<Object[]> loadedRows = rows;
+            RuntimeException error = failure;
+            SwingUtilities.invokeLater(() -> pageLoaded(loadGeneration, pageIndex, loaded, loadedRows, error));
+        });
+    }
+
+    private void pageLoaded(long loadGeneration, int pageIndex, Page<T> page, List<Object[]> rows, RuntimeException error) {
+        loadingPage = null;
+        if (loadGeneration == generation) {
+            if (error != null) {
+                System.err.println("Error loading table page " + pageIndex + ": " + error.getMessage());
+            } else {
+                pages.put(pageIndex, new LoadedPage<>(new ArrayList<>(page.getItems()), rows));
+                if (page.hasNext()) {
+                    startTokens.put(pageIndex + 1, page.getContinuationToken());
+                }
+                int firstRow = pageIndex * pageSize;
+                if (!page.hasNext() && firstRow + page.size() < rowCount) {
+                    // The table shrank behind the model's back (e.g. a delete from the CLI or the API
+                    // server): this page is the real end. Trim the model to it; otherwise the page never
+                    // counts as complete and every repaint requests it again.
+                    int oldRowCount = rowCount;
+                    rowCount = firstRow + page.size();
+                    dropPagesAfter(pageIndex);
+                    fireTableRowsDeleted(rowCount, oldRowCount - 1);
+                }
+                int lastRow = Math.min(rowCount, firstRow + pageSize) - 1;
+                if (lastRow >= firstRow) {
+                    fireTableRowsUpdated(firstRow, lastRow);
+                }
+            }
+        }
+        pump();
+    }
+}
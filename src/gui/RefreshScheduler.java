@@ -0,0 +1,137 @@
+package gui;
+
+import javax.swing.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coalesces refresh requests so a burst of edits (or tab switches) recomputes a view once.
+ * Requests for the same key that arrive within the debounce window replace each other: only the
+ * latest action runs, once the window has passed without a new request. A refresh is never delayed
+ * by more than the maximum delay, so a continuous stream of requests still refreshes periodically.
+ * The actions themselves should hand their work to the BackgroundLoader, which also cancels a
+ * superseded load that is still running for the same owner.
+ *
+ * Configuration (milliseconds): -Decms.ui.refreshWindowMillis (default 200),
+ * -Decms.ui.refreshMaxDelayMillis (default 1000).
+ *
+ * All methods must be called on the Event Dispatch Thread.
+ */
+public class RefreshScheduler {
+
+    private static final int DEFAULT_WINDOW_MILLIS = Integer.getInteger("ecms.ui.refreshWindowMillis", 200);
+    private static final int DEFAULT_MAX_DELAY_MILLIS = Integer.getInteger("ecms.ui.refreshMaxDelayMillis", 1000);
+
+    private final int windowMillis;
+    private final long maxDelayNanos;
+
+    // EDT-confined
+    private final Map<Object, PendingRefresh> pending = new HashMap<>();
+    private long requestedCount = 0;
+    private long executedCount = 0;
+
+    /**
+     * A scheduled refresh: the latest requested action and when the first request of the burst arrived.
+     */
+    private static final class PendingRefresh {
+        private final Timer timer;
+        private final long firstRequestNanos = System.nanoTime();
+        private Runnable action;
+
+        private PendingRefresh(Timer timer, Runnable action) {
+            this.timer = timer;
+            this.action = action;
+        }
+    }
+
+    public RefreshScheduler() {
+        this(DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    /**
+     * @param windowMillis Quiet period after the last request before the refresh runs (0 runs it on the next event).
+     * @param maxDelayMillis Longest a refresh may be postponed by further requests.
+     */
+    public RefreshScheduler(int windowMillis, int maxDelayMillis) {
+        if (windowMillis < 0 || maxDelayMillis < windowMillis) {
+            throw new IllegalArgumentException("Invalid refresh window: window=" + windowMillis + "ms, maxDelay=" + maxDelayMillis + "ms");
+        }
+        this.windowMillis = windowMillis;
+        this.maxDelayNanos = maxDelayMillis * 1_000_000L;
+    }
+
+    // =========================================================
+    // SCHEDULING
+    // =========================================================
+
+    /**
+     * Requests a refresh. Replaces any refresh still pending for the same key.
+     * @param key Identifies the view being refreshed (normally the panel).
+     * @param action The refresh to run.
+     */
+    public void request(Object key, Runnable action) {
+        requestedCount++;
+        PendingRefresh refresh = pending.get(key);
+        if (refresh != null) {
+            refresh.action = action; // The superseded action is dropped
+            if (System.nanoTime() - refresh.firstRequestNanos < maxDelayNanos) {
+                refresh.timer.restart(); // Debounce: wait for the burst to end
+            }
+            return;
+        }
+        Timer timer = new Timer(windowMillis, e -> run(key));
+        timer.setRepeats(false);
+        pending.put(key, new PendingRefresh(timer, action));
+        timer.start();
+    }
+
+    /**
+     * Drops the pending refresh for the key, if any.
+     */
+    public void cancel(Object key) {
+        PendingRefresh refresh = pending.remove(key);
+        if (refresh != null) {
+            refresh.timer.stop();
+        }
+    }
+
+    /**
+     * Drops every pending refresh (e.g. on logout).
+     */
+    public void cancelAll() {
+        for (PendingRefresh refresh : pending.values()) {
+            refresh.timer.stop();
+        }
+        pending.clear();
+    }
+
+    private void run(Object key) {
+        PendingRefresh refresh = pending.remove(key);
+        if (refresh == null) {
+            return; // Cancelled
+        }
+        executedCount++;
+        refresh.action.run();
+    }
+
+    // =========================================================
+    // STATISTICS
+    // =========================================================
+
+    public long getRequestedCount() {
+        return requestedCount;
+    }
+
+    public long getExecutedCount() {
+        return executedCount;
+    }
+
+    /**
+     * @return e.g. "Refreshes: requested=120, executed=4, coalesced=116, pending=0"
+     */
+    public String getStatistics() {
+        long coalesced = requestedCount - executedCount - pending.size();
+        return "Refreshes: requested=" + requestedCount + ", executed=" + executedCount
+                + ", coalesced=" + coalesced + ", pending=" + pending.size();
+    }
+}
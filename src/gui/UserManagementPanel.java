@@ -7,7 +7,7 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Panel dedicated to administrative user account management (CRUD for Users).
@@ -140,24 +140,18 @@ public class UserManagementPanel extends JPanel {
     // Data Loading and Mapping
     // =========================================================
 
+    /**
+     * Reloads the user table in the background (status is reported by the BackgroundLoader).
+     */
     public void loadUserTable() {
-        tableModel.setRowCount(0);
-
-        try {
-            List<User> users = managementService.getAllUsers();
-
-            for (User user : users) {
+        mainFrame.getBackgroundLoader().loadRows(this, "User accounts",
+                () -> managementService.getAllUsers().stream(),
                 // IMPORTANT: Never display the hashed password!
-                tableModel.addRow(new Object[]{
+                (User user) -> new Object[]{
                         user.getUsername(),
                         user.getRole()
-                });
-            }
-            mainFrame.updateStatusBar("User accounts loaded successfully.", true);
-
-        } catch (Exception ex) {
-            mainFrame.updateStatusBar("Error loading user accounts: " + ex.getMessage(), false);
-        }
+                },
+                tableModel);
     }
 
     private void clearForm() {
@@ -185,26 +179,49 @@ public class UserManagementPanel extends JPanel {
         String confirmPassword = new String(confirmPasswordField.getPassword());
         String role = (String) roleComboBox.getSelectedItem();
 
-        try {
-            // 1. Local UI Validation
-            if (username.isEmpty() || password.isEmpty() || confirmPassword.isEmpty()) {
-                throw new IllegalArgumentException("All fields must be filled.");
-            }
-            if (!password.equals(confirmPassword)) {
-                throw new IllegalArgumentException("Password and Confirm Password do not match.");
-            }
+        // 1. Local UI Validation
+        if (username.isEmpty() || password.isEmpty() || confirmPassword.isEmpty()) {
+            mainFrame.updateStatusBar("Registration Failed: All fields must be filled.", false);
+            return;
+        }
+        if (!password.equals(confirmPassword)) {
+            mainFrame.updateStatusBar("Registration Failed: Password and Confirm Password do not match.", false);
+            return;
+        }
 
-            // 2. Service Layer Registration (Handles Uniqueness, Hashing, and Saving)
-            managementService.registerNewUser(username, password, role);
+        // 2. Service Layer Registration (Handles Uniqueness, Hashing, and Saving).
+        // Hashing is deliberately slow, so it runs on a worker thread to keep the UI responsive.
+        registerButton.setEnabled(false);
+        mainFrame.updateStatusBar("Registering user '" + username + "'...", true);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                managementService.registerNewUser(username, password, role);
+                return null;
+            }
 
-            mainFrame.updateStatusBar("User '" + username + "' registered successfully!", true);
-            clearForm();
-            loadUserTable(); // Refresh the table
+            @Override
+            protected void done() {
+                registerButton.setEnabled(true);
+                try {
+                    get();
+                    mainFrame.updateStatusBar("User '" + username + "' registered successfully!", true);
+                    clearForm();
+                    loadUserTable(); // Refresh the table
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    showRegistrationError(ex.getCause() != null ? ex.getCause() : ex);
+                }
+            }
+        }.execute();
+    }
 
-        } catch (IllegalArgumentException ex) {
-            // Catches validation errors from this panel AND the service layer (e.g., username taken)
+    private void showRegistrationError(Throwable ex) {
+        if (ex instanceof IllegalArgumentException) {
+            // Validation errors from the service layer (e.g., username taken)
             mainFrame.updateStatusBar("Registration Failed: " + ex.getMessage(), false);
-        } catch (Exception ex) {
+        } else {
             mainFrame.updateStatusBar("System Error during registration: " + ex.getMessage(), false);
         }
     }
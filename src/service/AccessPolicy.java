@@ -0,0 +1,46 @@
+package service;
+
+import model.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static service.Permission.*;
+
+/**
+ * The role-based access control matrix: which permissions each role has.
+ * The matrix is compiled into one Permissions bit mask per role when the class loads; the GUI,
+ * the command line, the HTTP API and the ManagementService all check against these masks.
+ * Unknown roles get no permissions.
+ */
+public final class AccessPolicy {
+
+    private static final Map<String, Permissions> ROLE_PERMISSIONS = new HashMap<>();
+
+    static {
+        define("Admin", Permission.values());
+        define("Manager", EMPLOYEE_READ, EMPLOYEE_WRITE, EMPLOYEE_EXPORT,
+                CUSTOMER_READ, CUSTOMER_WRITE, CUSTOMER_EXPORT, ANALYTICS_VIEW);
+        define("HR Specialist", EMPLOYEE_READ, EMPLOYEE_WRITE, EMPLOYEE_EXPORT, ANALYTICS_VIEW);
+        define("Customer Service Agent", CUSTOMER_READ, CUSTOMER_WRITE);
+        define("Data Analyst", EMPLOYEE_READ, EMPLOYEE_EXPORT, CUSTOMER_READ, CUSTOMER_EXPORT, ANALYTICS_VIEW);
+    }
+
+    private AccessPolicy() {
+    }
+
+    private static void define(String role, Permission... permissions) {
+        ROLE_PERMISSIONS.put(role, Permissions.of(role, permissions));
+    }
+
+    /**
+     * @return The compiled permissions of the role (Permissions.NONE for null or unknown roles).
+     */
+    public static Permissions permissionsFor(String role) {
+        return role == null ? Permissions.NONE : ROLE_PERMISSIONS.getOrDefault(role, Permissions.NONE);
+    }
+
+    public static Permissions permissionsFor(User user) {
+        return user == null ? Permissions.NONE : permissionsFor(user.getRole());
+    }
+}
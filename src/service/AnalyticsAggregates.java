@@ -0,0 +1,277 @@
+package service;
+
+import model.Customer;
+import model.Employee;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally maintained (materialized) analytics aggregates.
+ * Holds running sums and counts per job title and per membership level, plus the totals used by
+ * the dashboard. ManagementService applies every write as an O(1) delta, so the Analytics tab and
+ * the dashboard read their metrics in constant time instead of recomputing them from the tables.
+ *
+ * Lifecycle:
+ * 1. Starts uninitialized; rebuild() installs a snapshot computed from the database.
+ * 2. Deltas are applied only while initialized. A delta must come after its write has committed, and the
+ *    rebuild must not interleave with a committed write whose delta is still pending: the snapshot would
+ *    already contain the row and the delta would add it again. ManagementService guarantees this by
+ *    running both under its write lock. As a backstop, a delta or invalidate() that does land during a
+ *    rebuild makes that rebuild discard its snapshot.
+ * 3. invalidate() drops the aggregates (e.g. after bulk updates) so the next read rebuilds them.
+ */
+public class AnalyticsAggregates {
+
+    private static final double TOLERANCE = 0.005; // Allowed floating point drift in the consistency check
+
+    // --- Employee aggregates ---
+    private final Map<String, SalaryBucket> employeesByJobTitle = new HashMap<>();
+    private long employeeCount;
+    private double salaryTotal;
+
+    // --- Customer aggregates ---
+    private final Map<String, Long> customersByMembershipLevel = new HashMap<>();
+    private long customerCount;
+
+    // --- Shared (dashboard average age covers employees and customers) ---
+    private double ageTotal;
+
+    // --- State ---
+    private boolean initialized = false;
+    private long writeVersion = 0; // Incremented on every delta, used to detect writes during a rebuild
+
+    /**
+     * Running total for one job title.
+     */
+    private static final class SalaryBucket {
+        private long count;
+        private double salarySum;
+    }
+
+    // =========================================================
+    // REBUILD / INVALIDATION
+    // =========================================================
+
+    /**
+     * Marks the start of a rebuild. Pass the returned version to rebuild().
+     * @return The current write version.
+     */
+    public synchronized long beginRebuild() {
+        return writeVersion;
+    }
+
+    /**
+     * Installs a full snapshot computed from the persistence store.
+     * Averages are converted back to running sums (sum = average x count).
+     * @param versionAtStart The value returned by beginRebuild() before the snapshot was read.
+     * @param employeeCountByJobTitle Employee count per job title.
+     * @param averageSalaryByJobTitle Average salary per job title.
+     * @param customerCountByMembershipLevel Customer count per membership level.
+     * @param averageAge Average age across all employees and customers.
+     * @return true if the snapshot was installed, false if a write happened during the rebuild.
+     */
+    public synchronized boolean rebuild(long versionAtStart,
+                                        Map<String, Integer> employeeCountByJobTitle,
+                                        Map<String, Double> averageSalaryByJobTitle,
+                                        Map<String, Integer> customerCountByMembershipLevel,
+                                        double averageAge) {
+        if (writeVersion != versionAtStart) {
+            System.out.println("Analytics aggregates rebuild discarded: data changed while rebuilding.");
+            return false;
+        }
+
+        employeesByJobTitle.clear();
+        employeeCount = 0;
+        salaryTotal = 0.0;
+        for (Map.Entry<String, Integer> entry : employeeCountByJobTitle.entrySet()) {
+            SalaryBucket bucket = new SalaryBucket();
+            bucket.count = entry.getValue();
+            bucket.salarySum = averageSalaryByJobTitle.getOrDefault(entry.getKey(), 0.0) * bucket.count;
+            employeesByJobTitle.put(entry.getKey(), bucket);
+            employeeCount += bucket.count;
+            salaryTotal += bucket.salarySum;
+        }
+
+        customersByMembershipLevel.clear();
+        customerCount = 0;
+        for (Map.Entry<String, Integer> entry : customerCountByMembershipLevel.entrySet()) {
+            customersByMembershipLevel.put(entry.getKey(), (long) entry.getValue());
+            customerCount += entry.getValue();
+        }
+        ageTotal = averageAge * (employeeCount + customerCount);
+
+        initialized = true;
+        System.out.println("Analytics aggregates rebuilt: " + employeeCount + " employees, " + customerCount + " customers.");
+        return true;
+    }
+
+    /**
+     * Drops the aggregates; the next read triggers a rebuild.
+     */
+    public synchronized void invalidate() {
+        writeVersion++;
+        initialized = false;
+    }
+
+    public synchronized boolean isInitialized() {
+        return initialized;
+    }
+
+    // =========================================================
+    // O(1) DELTAS (called by ManagementService after each successful write)
+    // =========================================================
+
+    public synchronized void employeeAdded(Employee e) {
+        writeVersion++;
+        if (!initialized) return;
+        SalaryBucket bucket = employeesByJobTitle.computeIfAbsent(e.getJobTitle(), k -> new SalaryBucket());
+        bucket.count++;
+        bucket.salarySum += e.getSalary();
+        employeeCount++;
+        salaryTotal += e.getSalary();
+        ageTotal += e.getAge();
+    }
+
+    public synchronized void employeeRemoved(Employee e) {
+        writeVersion++;
+        if (!initialized) return;
+        SalaryBucket bucket = employeesByJobTitle.get(e.getJobTitle());
+        if (bucket == null) {
+            // Should not happen; the aggregates no longer match the data
+            initialized = false;
+            return;
+        }
+        bucket.count--;
+        bucket.salarySum -= e.getSalary();
+        if (bucket.count <= 0) {
+            employeesByJobTitle.remove(e.getJobTitle());
+        }
+        employeeCount--;
+        salaryTotal -= e.getSalary();
+        ageTotal -= e.getAge();
+    }
+
+    public synchronized void employeeUpdated(Employee before, Employee after) {
+        employeeRemoved(before);
+        employeeAdded(after);
+    }
+
+    public synchronized void customerAdded(Customer c) {
+        writeVersion++;
+        if (!initialized) return;
+        customersByMembershipLevel.merge(c.getMembershipLevel(), 1L, Long::sum);
+        customerCount++;
+        ageTotal += c.getAge();
+    }
+
+    public synchronized void customerRemoved(Customer c) {
+        writeVersion++;
+        if (!initialized) return;
+        Long current = customersByMembershipLevel.get(c.getMembershipLevel());
+        if (current == null) {
+            // Should not happen; the aggregates no longer match the data
+            initialized = false;
+            return;
+        }
+        if (current <= 1) {
+            customersByMembershipLevel.remove(c.getMembershipLevel());
+        } else {
+            customersByMembershipLevel.put(c.getMembershipLevel(), current - 1);
+        }
+        customerCount--;
+        ageTotal -= c.getAge();
+    }
+
+    public synchronized void customerUpdated(Customer before, Customer after) {
+        customerRemoved(before);
+        customerAdded(after);
+    }
+
+    // =========================================================
+    // CONSTANT-TIME READS (callers must check isInitialized() first)
+    // =========================================================
+
+    public synchronized Map<String, Double> getAverageSalaryByJobTitle() {
+        Map<String, Double> results = new HashMap<>();
+        for (Map.Entry<String, SalaryBucket> entry : employeesByJobTitle.entrySet()) {
+            results.put(entry.getKey(), entry.getValue().salarySum / entry.getValue().count);
+        }
+        return results;
+    }
+
+    public synchronized Map<String, Integer> getEmployeeCountByJobTitle() {
+        Map<String, Integer> results = new HashMap<>();
+        for (Map.Entry<String, SalaryBucket> entry : employeesByJobTitle.entrySet()) {
+            results.put(entry.getKey(), (int) entry.getValue().count);
+        }
+        return results;
+    }
+
+    public synchronized Map<String, Integer> getCustomerCountByMembershipLevel() {
+        Map<String, Integer> results = new HashMap<>();
+        for (Map.Entry<String, Long> entry : customersByMembershipLevel.entrySet()) {
+            results.put(entry.getKey(), entry.getValue().intValue());
+        }
+        return results;
+    }
+
+    public synchronized long countMembershipLevel(String level) {
+        if (level == null) return 0;
+        long count = 0;
+        for (Map.Entry<String, Long> entry : customersByMembershipLevel.entrySet()) {
+            if (level.equalsIgnoreCase(entry.getKey())) {
+                count += entry.getValue();
+            }
+        }
+        return count;
+    }
+
+    public synchronized double getAverageSalary() {
+        return employeeCount == 0 ? 0.0 : salaryTotal / employeeCount;
+    }
+
+    public synchronized double getAverageAge() {
+        long people = employeeCount + customerCount;
+        return people == 0 ? 0.0 : ageTotal / people;
+    }
+
+    // =========================================================
+    // CONSISTENCY CHECK
+    // =========================================================
+
+    /**
+     * Compares the maintained aggregates with a full recompute.
+     * @return A list of human-readable discrepancies; empty if the aggregates are consistent.
+     */
+    public synchronized List<String> findDiscrepancies(Map<String, Integer> employeeCountByJobTitle,
+                                                       Map<String, Double> averageSalaryByJobTitle,
+                                                       Map<String, Integer> customerCountByMembershipLevel,
+                                                       double averageAge) {
+        List<String> discrepancies = new ArrayList<>();
+        if (!initialized) {
+            discrepancies.add("Aggregates are not initialized.");
+            return discrepancies;
+        }
+
+        if (!getEmployeeCountByJobTitle().equals(employeeCountByJobTitle)) {
+            discrepancies.add("Employee count by job title: maintained=" + getEmployeeCountByJobTitle() + ", recomputed=" + employeeCountByJobTitle);
+        }
+        Map<String, Double> maintainedSalaries = getAverageSalaryByJobTitle();
+        for (Map.Entry<String, Double> entry : averageSalaryByJobTitle.entrySet()) {
+            Double maintained = maintainedSalaries.get(entry.getKey());
+            if (maintained == null || Math.abs(maintained - entry.getValue()) > TOLERANCE) {
+                discrepancies.add("Average salary for '" + entry.getKey() + "': maintained=" + maintained + ", recomputed=" + entry.getValue());
+            }
+        }
+        if (!getCustomerCountByMembershipLevel().equals(customerCountByMembershipLevel)) {
+            discrepancies.add("Customer count by membership level: maintained=" + getCustomerCountByMembershipLevel() + ", recomputed=" + customerCountByMembershipLevel);
+        }
+        if (Math.abs(getAverageAge() - averageAge) > TOLERANCE) {
+            discrepancies.add("Average age: maintained=" + getAverageAge() + ", recomputed=" + averageAge);
+        }
+        return discrepancies;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A dedicated utility class within the Service layer for complex calculations
@@ -127,4 +128,42 @@ public class AnalyticsEngine {
         return customers.stream()
                 .collect(Collectors.groupingBy(Customer::getMembershipLevel, Collectors.summingInt(c -> 1)));
     }
-}
\ No newline at end of file
+
+    // =========================================================
+    // STREAMING OVERLOADS (Constant memory, fed by DAO cursors)
+    // These consume the stream once and keep only per-group running totals,
+    // so they work on tables of any size. The caller owns (and closes) the stream.
+    // Rows from the DAOs share one String per job title / membership level, so the
+    // grouping maps hash each key once and match it by reference.
+    // =========================================================
+
+    public double calculateAverageAge(Stream<? extends Person> people) {
+        return people.mapToInt(Person::getAge).average().orElse(0.0);
+    }
+
+    public double calculateAverageSalary(Stream<Employee> employees) {
+        return employees.mapToDouble(Employee::getSalary).average().orElse(0.0);
+    }
+
+    public long countMembershipLevel(Stream<Customer> customers, String level) {
+        if (level == null) {
+            return 0;
+        }
+        return customers.filter(c -> level.equalsIgnoreCase(c.getMembershipLevel())).count();
+    }
+
+    public Map<String, Double> getAverageSalaryByJobTitle(Stream<Employee> employees) {
+        return employees.collect(Collectors.groupingBy(Employee::getJobTitle, HashMap::new,
+                Collectors.averagingDouble(Employee::getSalary)));
+    }
+
+    public Map<String, Integer> getEmployeeCountByJobTitle(Stream<Employee> employees) {
+        return employees.collect(Collectors.groupingBy(Employee::getJobTitle, HashMap::new,
+                Collectors.summingInt(e -> 1)));
+    }
+
+    public Map<String, Integer> getCustomerCountByMembershipLevel(Stream<Customer> customers) {
+        return customers.collect(Collectors.groupingBy(Customer::getMembershipLevel, HashMap::new,
+                Collectors.summingInt(c -> 1)));
+    }
+}
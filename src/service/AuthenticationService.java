@@ -1,17 +1,53 @@
 package service;
 
+import dao.GenericDAO;
 import dao.UserDAO;
 import dao.sqlite.UserDAOImpl;
+import exception.DuplicateKeyException;
 import model.User;
 import util.CustomExceptions;
 import util.PasswordHasher;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.security.Security;
 
+/**
+ * Authentication and sessions.
+ * The desktop client and the CLI have one user per process (getActiveUser()). Multi-user front-ends
+ * such as the HTTP API open a Session per client instead: the session table is a ConcurrentHashMap
+ * keyed by opaque random tokens, so lookups from many threads never block each other, and sessions
+ * idle for longer than ecms.session.idleMinutes (default 30) expire.
+ *
+ * Permission checks (requirePermission) use the session bound to the current thread by callAs(),
+ * or else the desktop/CLI user; each caches its role's compiled Permissions.
+ */
 public class AuthenticationService {
 
+    // --- Session Configuration (-Decms.session.idleMinutes) ---
+    private static final long SESSION_IDLE_MILLIS = Long.getLong("ecms.session.idleMinutes", 30L) * 60_000L;
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000L; // Expired sessions are purged at most once a minute
+    private static final int TOKEN_BYTES = 32;
+
     private final UserDAO userDAO;
-    private User activeUser = null; // Holds the currently logged-in user
+    private volatile User activeUser = null; // Holds the currently logged-in user (desktop/CLI)
+    private volatile Permissions activePermissions = Permissions.NONE; // Compiled once per login
+
+    // --- Multi-user sessions ---
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom tokenGenerator = new SecureRandom();
+    private final AtomicLong nextSweepMillis = new AtomicLong();
+    private final ThreadLocal<Session> boundSession = new ThreadLocal<>();
 
     /**
      * Constructor initializes the DAO dependency.
@@ -31,21 +67,187 @@ public class AuthenticationService {
      * @throws SecurityException if the password is incorrect.
      */
     public User login(String username, String password) throws CustomExceptions.RecordNotFoundException, SecurityException {
+        User user = authenticate(username, password);
+        setActiveUser(user); // Set the active session
+        System.out.println("User " + username + " successfully logged in with role: " + user.getRole());
+        return user;
+    }
+
+    /**
+     * Checks credentials without starting a session (no shared state is changed), so it can be
+     * called concurrently, e.g. by the HTTP API for every request.
+     * The hash is computed on the PasswordHasher pool; a legacy or weaker stored hash is replaced
+     * in the background after a successful check.
+     * @return The authenticated User object.
+     * @throws CustomExceptions.RecordNotFoundException if user is not found in the database.
+     * @throws SecurityException if the password is incorrect.
+     */
+    public User authenticate(String username, String password) throws CustomExceptions.RecordNotFoundException, SecurityException {
         // 1. Look up the user by username to get the stored hash and role
         // This relies on the fixed UserDAOImpl.findByUsername()
         User user = userDAO.findByUsername(username);
 
         // 2. Verify the plain text password against the stored hash
-        if (PasswordHasher.verifyPassword(password, user.getHashedPassword())) {
-            this.activeUser = user; // Set the active session
-            System.out.println("User " + username + " successfully logged in with role: " + user.getRole());
-            return user;
-        } else {
+        if (!verifyOnHashingPool(password, user.getHashedPassword())) {
             // Password verification failed
             throw new SecurityException("Invalid password for user: " + username);
         }
+
+        // 3. Upgrade old hashes now that the plain password is known to be correct
+        if (PasswordHasher.needsRehash(user.getHashedPassword())) {
+            PasswordHasher.hashPasswordAsync(password)
+                    .thenAccept(upgraded -> {
+                        userDAO.update(new User(user.getUsername(), upgraded, user.getRole()));
+                        System.out.println("Password hash of " + user.getUsername() + " upgraded.");
+                    })
+                    .exceptionally(e -> {
+                        System.err.println("Password hash upgrade for " + user.getUsername() + " failed: " + e.getMessage());
+                        return null;
+                    });
+        }
+        return user;
+    }
+
+    /**
+     * Verifies on the bounded hashing pool and waits for the result.
+     * @throws java.util.concurrent.RejectedExecutionException if too many verifications are queued.
+     */
+    private static boolean verifyOnHashingPool(String password, String storedHash) {
+        try {
+            return PasswordHasher.verifyPasswordAsync(password, storedHash).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // =========================================================
+    // MULTI-USER SESSIONS
+    // =========================================================
+
+    /**
+     * Checks the credentials and opens a new session.
+     * @return The session; its token identifies the client on later calls.
+     * @throws CustomExceptions.RecordNotFoundException if user is not found in the database.
+     * @throws SecurityException if the password is incorrect.
+     */
+    public Session openSession(String username, String password) throws CustomExceptions.RecordNotFoundException, SecurityException {
+        User user = authenticate(username, password);
+        long now = System.currentTimeMillis();
+        purgeExpiredSessionsIfDue(now);
+
+        byte[] random = new byte[TOKEN_BYTES];
+        tokenGenerator.nextBytes(random);
+        Session session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(random), user, now);
+        sessions.put(session.getToken(), session);
+        System.out.println("Session opened for " + username + " (" + sessions.size() + " active).");
+        return session;
+    }
+
+    /**
+     * Checks the credentials for a single request (e.g. HTTP Basic) without registering a session.
+     * @return A session without a token, usable with callAs().
+     * @throws CustomExceptions.RecordNotFoundException if user is not found in the database.
+     * @throws SecurityException if the password is incorrect.
+     */
+    public Session authenticateRequest(String username, String password) throws CustomExceptions.RecordNotFoundException, SecurityException {
+        return new Session(null, authenticate(username, password), System.currentTimeMillis());
+    }
+
+    /**
+     * Looks up a session and marks it as used.
+     * @return The session, or empty if the token is unknown or the session has expired.
+     */
+    public Optional<Session> findSession(String token) {
+        if (token == null) return Optional.empty();
+        Session session = sessions.get(token);
+        if (session == null) return Optional.empty();
+
+        long now = System.currentTimeMillis();
+        if (session.isExpired(now, SESSION_IDLE_MILLIS)) {
+            sessions.remove(token, session);
+            return Optional.empty();
+        }
+        session.touch(now);
+        return Optional.of(session);
+    }
+
+    /**
+     * Ends a session.
+     * @return true if the session existed.
+     */
+    public boolean closeSession(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Removes every expired session.
+     * @return The number of sessions removed.
+     */
+    public int purgeExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.isExpired(now, SESSION_IDLE_MILLIS));
+        return Math.max(0, before - sessions.size());
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Sweeps expired sessions when the interval has passed; only one caller wins the sweep.
+     */
+    private void purgeExpiredSessionsIfDue(long now) {
+        long due = nextSweepMillis.get();
+        if (now >= due && nextSweepMillis.compareAndSet(due, now + SWEEP_INTERVAL_MILLIS)) {
+            purgeExpiredSessions();
+        }
+    }
+
+    // =========================================================
+    // PERMISSION CHECKS
+    // =========================================================
+
+    /**
+     * Runs an action on behalf of a session: permission checks made by the ManagementService on this
+     * thread use the session's permissions instead of the desktop user's.
+     */
+    public <V> V callAs(Session session, Callable<V> action) throws Exception {
+        Session previous = boundSession.get();
+        boundSession.set(session);
+        try {
+            return action.call();
+        } finally {
+            if (previous == null) {
+                boundSession.remove();
+            } else {
+                boundSession.set(previous);
+            }
+        }
     }
 
+    /**
+     * @return The permissions of the caller on this thread (bound session, else the active user).
+     */
+    public Permissions currentPermissions() {
+        Session session = boundSession.get();
+        return session != null ? session.getPermissions() : activePermissions;
+    }
+
+    /**
+     * @throws SecurityException if the caller on this thread lacks the permission.
+     */
+    public void requirePermission(Permission permission) {
+        currentPermissions().require(permission);
+    }
+
+    // =========================================================
+    // DESKTOP / CLI SESSION
+    // =========================================================
+
     /**
      * Logs out the current user by clearing the active session.
      */
@@ -54,6 +256,7 @@ public class AuthenticationService {
             System.out.println("User " + this.activeUser.getUsername() + " logged out.");
         }
         this.activeUser = null;
+        this.activePermissions = Permissions.NONE;
     }
 
     // --- FIX: ADDED METHOD TO ALLOW MAIN FRAME TO SET THE ACTIVE USER ---
@@ -63,6 +266,7 @@ public class AuthenticationService {
      * @param user The authenticated User object.
      */
     public void setActiveUser(User user) {
+        this.activePermissions = AccessPolicy.permissionsFor(user);
         this.activeUser = user;
     }
     // ----------------------------------------------------------------------
@@ -75,6 +279,13 @@ public class AuthenticationService {
         return activeUser;
     }
 
+    /**
+     * @return The compiled permissions of the logged-in user (Permissions.NONE when logged out).
+     */
+    public Permissions getActivePermissions() {
+        return activePermissions;
+    }
+
     /**
      * Registers a new user account by performing validation and password hashing.
      * * @param username The desired username (must be unique).
@@ -85,16 +296,14 @@ public class AuthenticationService {
      */
     public User registerNewUser(String username, String plainPassword, String role) throws IllegalArgumentException {
         // --- 1. Basic Input Validation ---
-        if (username == null || username.trim().isEmpty() || plainPassword == null || plainPassword.isEmpty()) {
-            throw new IllegalArgumentException("Username and password cannot be empty.");
-        }
-        if (role == null || role.trim().isEmpty()) {
-            throw new IllegalArgumentException("User role must be specified.");
+        String problem = validateRegistration(username, plainPassword, role);
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
         }
 
         // --- 2. Uniqueness Check (Delegates to DAO) ---
-        // Requires the new public method we added to UserDAOImpl
-        if (((UserDAOImpl) userDAO).checkIfUsernameExists(username.trim())) {
+        // Answered from the in-memory username filter when the name is new
+        if (userDAO.checkIfUsernameExists(username.trim())) {
             throw new IllegalArgumentException("Username '" + username + "' is already taken. Please choose another.");
         }
 
@@ -111,12 +320,95 @@ public class AuthenticationService {
             System.out.println("New user registered: " + username + " with role " + role);
             return newUser;
 
+        } catch (DuplicateKeyException e) {
+            // Taken by another process (CLI import, API server) after the uniqueness check
+            throw new IllegalArgumentException("Username '" + username + "' is already taken. Please choose another.");
         } catch (Exception e) {
             // Catch errors from PasswordHasher or DAO saving
             throw new IllegalArgumentException("Error saving new user: " + e.getMessage());
         }
     }
 
+    /**
+     * Registers many user accounts at once (e.g. onboarding a department). Instead of one
+     * registerNewUser call per person, uniqueness is checked with one set-based lookup, the passwords
+     * are hashed in parallel on the password pool and all rows are inserted in one batched transaction.
+     * Invalid or taken entries do not stop the others; each request gets its own result.
+     * @param requests The accounts to create.
+     * @return One result per request, in the same order.
+     * @throws exception.DataAccessException if the insert fails; no account is created.
+     */
+    public List<UserProvisioning.Result> registerNewUsers(List<UserProvisioning.Request> requests) {
+        UserProvisioning.Result[] results = new UserProvisioning.Result[requests.size()];
+
+        // --- 1. Validation; within the batch the first occurrence of a username wins ---
+        Map<String, Integer> candidates = new LinkedHashMap<>(); // Trimmed username -> row
+        for (int row = 0; row < results.length; row++) {
+            UserProvisioning.Request request = requests.get(row);
+            String problem = validateRegistration(request.getUsername(), request.getPassword(), request.getRole());
+            if (problem != null) {
+                results[row] = new UserProvisioning.Result(row, request.getUsername(), UserProvisioning.Status.INVALID, problem);
+            } else if (candidates.putIfAbsent(request.getUsername().trim(), row) != null) {
+                results[row] = new UserProvisioning.Result(row, request.getUsername().trim(), UserProvisioning.Status.DUPLICATE,
+                        "Username appears more than once in this request.");
+            }
+        }
+
+        // --- 2. Uniqueness: one lookup for the whole batch ---
+        Set<String> taken = userDAO.findExistingUsernames(candidates.keySet());
+        List<Integer> rows = new ArrayList<>(candidates.size());
+        List<String> passwords = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+            int row = candidate.getValue();
+            if (taken.contains(candidate.getKey())) {
+                results[row] = new UserProvisioning.Result(row, candidate.getKey(), UserProvisioning.Status.DUPLICATE,
+                        "Username is already taken.");
+            } else {
+                rows.add(row);
+                passwords.add(requests.get(row).getPassword());
+            }
+        }
+
+        // --- 3. Security: hash the passwords in parallel ---
+        List<String> hashes = PasswordHasher.hashPasswords(passwords);
+
+        // --- 4. One batched insert ---
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserProvisioning.Request request = requests.get(rows.get(i));
+            users.add(new User(request.getUsername().trim(), hashes.get(i), request.getRole().trim()));
+        }
+        boolean[] inserted = userDAO.saveAllIfAbsent(users, GenericDAO.DEFAULT_BATCH_SIZE);
+
+        int created = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            int row = rows.get(i);
+            if (inserted[i]) {
+                results[row] = new UserProvisioning.Result(row, users.get(i).getUsername(), UserProvisioning.Status.CREATED, null);
+                created++;
+            } else {
+                // Registered by someone else between the lookup and the insert
+                results[row] = new UserProvisioning.Result(row, users.get(i).getUsername(), UserProvisioning.Status.DUPLICATE,
+                        "Username is already taken.");
+            }
+        }
+        System.out.println("Bulk registration: " + created + " of " + results.length + " users created.");
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @return Why the registration input is invalid, or null if it is valid.
+     */
+    private static String validateRegistration(String username, String plainPassword, String role) {
+        if (username == null || username.trim().isEmpty() || plainPassword == null || plainPassword.isEmpty()) {
+            return "Username and password cannot be empty.";
+        }
+        if (role == null || role.trim().isEmpty()) {
+            return "User role must be specified.";
+        }
+        return null;
+    }
+
     /**
      * Retrieves all users for administrative display.
      * @return List of all User objects.
@@ -131,7 +423,12 @@ public class AuthenticationService {
      * @return true if deletion was successful.
      */
     public boolean deleteUser(String username) {
-        return userDAO.delete(username);
+        boolean deleted = userDAO.delete(username);
+        if (deleted) {
+            // A deleted account must not keep working through sessions opened earlier
+            sessions.values().removeIf(session -> session.getUsername().equals(username));
+        }
+        return deleted;
     }
 
     // --- Utility for Initial Setup (Seeding an Admin User) ---
@@ -144,11 +441,10 @@ public class AuthenticationService {
      * @param role The role (e.g., "Admin").
      */
     public void setupInitialAdmin(String username, String plainPassword, String role) {
-        try {
-            // Try to find the user; if found, do nothing
-            userDAO.findByUsername(username);
+        // Also builds the username filter, so this runs once at startup
+        if (userDAO.checkIfUsernameExists(username)) {
             System.out.println("Admin user '" + username + "' already exists. Skipping setup.");
-        } catch (CustomExceptions.RecordNotFoundException e) {
+        } else {
             // User not found, proceed to create
             System.out.println("No admin found. Creating initial admin user...");
             try {
@@ -158,6 +454,9 @@ public class AuthenticationService {
                 // This calls the fixed UserDAOImpl.save() method
                 userDAO.save(newAdmin);
                 System.out.println("Initial Admin user created: " + username);
+            } catch (DuplicateKeyException duplicate) {
+                // Another process created it between the check and the insert
+                System.out.println("Admin user '" + username + "' already exists. Skipping setup.");
             } catch (Exception saveEx) {
                 System.err.println("FATAL: Failed to save initial admin user. Check UserDAOImpl.save() and database connection: " + saveEx.getMessage());
                 // This failure is critical but might be masked during startup
@@ -0,0 +1,77 @@
+package service;
+
+import java.util.Objects;
+
+/**
+ * Describes one change made through the ManagementService.
+ * Single-row events carry the entity itself, so listeners (table models, dashboard counters) can
+ * apply the change in place instead of re-reading the data:
+ * - CREATED: entity is the new record.
+ * - UPDATED: entity is the new state, previous the state before the update (never null; an
+ *   update whose previous state is unknown is reported as BULK_CHANGED).
+ * - DELETED: entity is the record as it was before it was removed.
+ * - BULK_CHANGED: a batch operation changed an unknown set of rows; entity and previous are null
+ *   and listeners should reload.
+ * @param <T> The entity type (Employee or Customer).
+ */
+public final class DataChangeEvent<T> {
+
+    public enum Type { CREATED, UPDATED, DELETED, BULK_CHANGED }
+
+    private final Type type;
+    private final Class<T> entityType;
+    private final T entity;
+    private final T previous;
+
+    private DataChangeEvent(Type type, Class<T> entityType, T entity, T previous) {
+        this.type = Objects.requireNonNull(type);
+        this.entityType = Objects.requireNonNull(entityType);
+        this.entity = entity;
+        this.previous = previous;
+    }
+
+    public static <T> DataChangeEvent<T> created(Class<T> entityType, T entity) {
+        return new DataChangeEvent<>(Type.CREATED, entityType, entity, null);
+    }
+
+    public static <T> DataChangeEvent<T> updated(Class<T> entityType, T previous, T entity) {
+        return new DataChangeEvent<>(Type.UPDATED, entityType, entity, Objects.requireNonNull(previous));
+    }
+
+    public static <T> DataChangeEvent<T> deleted(Class<T> entityType, T entity) {
+        return new DataChangeEvent<>(Type.DELETED, entityType, entity, null);
+    }
+
+    public static <T> DataChangeEvent<T> bulkChanged(Class<T> entityType) {
+        return new DataChangeEvent<>(Type.BULK_CHANGED, entityType, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    public T getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return This event typed for the given entity class, or null if it is about another entity.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> DataChangeEvent<E> as(Class<E> type) {
+        return entityType == type ? (DataChangeEvent<E>) this : null;
+    }
+
+    @Override
+    public String toString() {
+        return "DataChangeEvent{" + type + " " + entityType.getSimpleName() + "}";
+    }
+}
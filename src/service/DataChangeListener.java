@@ -0,0 +1,11 @@
+package service;
+
+/**
+ * Receives the changes made through the ManagementService.
+ * Listeners are called synchronously on the thread that performed the write, after it succeeded;
+ * GUI listeners must hand the event over to the Event Dispatch Thread themselves.
+ */
+@FunctionalInterface
+public interface DataChangeListener {
+    void onDataChanged(DataChangeEvent<?> event);
+}
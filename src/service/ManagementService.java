@@ -1,16 +1,27 @@
 package service;
 
+import dao.AnalyticsDAO;
+import dao.AnalyticsSnapshot;
+import dao.CachingDAO;
+import dao.CsvExportDAO;
 import dao.GenericDAO;
+import dao.Page;
+import dao.sqlite.AnalyticsDAOImpl;
+import dao.sqlite.CsvExportDAOImpl;
 import dao.sqlite.CustomerDAOImpl;
 import dao.sqlite.EmployeeDAOImpl;
 import model.Customer;
 import model.Employee;
 import model.Person;
-import util.DataExporter;
+import util.CustomExceptions;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.IntSummaryStatistics;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -19,12 +30,22 @@ import java.util.HashMap;
  * The core business logic service for the ECMS.
  * Acts as the 'Controller' layer, coordinating data between the GUI and DAOs.
  * This is where authentication, validation, analytics, and file exports are handled.
+ *
+ * Every data operation checks the caller's permission (AuthenticationService.requirePermission) and
+ * throws SecurityException when it is missing, so no front-end can bypass the role rules.
+ * Record counts are open to every logged-in role (the dashboard shows them).
  */
 public class ManagementService {
 
     // --- Core Dependencies ---
-    private final EmployeeDAOImpl employeeDAO;
-    private final CustomerDAOImpl customerDAO;
+    // The SQLite DAOs are wrapped in read-through caches so repeated getXxxById calls
+    // (e.g. panels re-reading a record after each save) do not go back to the database.
+    private final CachingDAO<Employee> employeeDAO;
+    private final CachingDAO<Customer> customerDAO;
+
+    // --- Cache Configuration (-Decms.cache.maxEntries / -Decms.cache.ttlSeconds) ---
+    private static final int CACHE_MAX_ENTRIES = Integer.getInteger("ecms.cache.maxEntries", 10_000);
+    private static final long CACHE_TTL_SECONDS = Long.getLong("ecms.cache.ttlSeconds", 0L);
 
     // --- Authentication Service for Login/Active User access ---
     private final AuthenticationService authService;
@@ -32,15 +53,38 @@ public class ManagementService {
     // --- Analytics Engine (Used for calculations) ---
     private final AnalyticsEngine analyticsEngine;
 
+    // --- SQL Aggregation (null = compute in memory with the AnalyticsEngine) ---
+    private final AnalyticsDAO analyticsDAO;
+
+    // --- Streaming CSV export (database cursor -> file, fixed memory) ---
+    private final CsvExportDAO csvExportDAO;
+
+    // --- Materialized aggregates, kept current by the write operations below ---
+    private final AnalyticsAggregates aggregates = new AnalyticsAggregates();
+
+    // --- Serializes writes: reading the previous row, the write itself, its aggregate delta and its
+    // change event form one step, so concurrent callers (HTTP API workers) cannot interleave them ---
+    private final Object writeLock = new Object();
+
+    // --- Data change notifications (panels apply single-row changes instead of reloading) ---
+    private final List<DataChangeListener> dataChangeListeners = new CopyOnWriteArrayList<>();
+
     // --- Constructor ---
     public ManagementService() {
         // Initialize the concrete DAO implementations
-        this.employeeDAO = new EmployeeDAOImpl();
-        this.customerDAO = new CustomerDAOImpl();
+        this.employeeDAO = new CachingDAO<>(new EmployeeDAOImpl(), Employee::getId,
+                CACHE_MAX_ENTRIES, CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+        this.customerDAO = new CachingDAO<>(new CustomerDAOImpl(), Customer::getId,
+                CACHE_MAX_ENTRIES, CACHE_TTL_SECONDS, TimeUnit.SECONDS);
 
         // Initialize CORE SERVICES
         this.authService = new AuthenticationService();
         this.analyticsEngine = new AnalyticsEngine();
+
+        // Aggregates are pushed down to SQLite unless the in-memory path is forced
+        // (-Decms.analytics.inMemory=true), e.g. to compare both paths in benchmarks.
+        this.analyticsDAO = Boolean.getBoolean("ecms.analytics.inMemory") ? null : new AnalyticsDAOImpl();
+        this.csvExportDAO = new CsvExportDAOImpl();
     }
 
     // =========================================================
@@ -55,68 +99,392 @@ public class ManagementService {
         return analyticsEngine;
     }
 
+    /**
+     * @return Hit/miss/eviction counters of the employee and customer caches, for capacity tuning.
+     */
+    public String getCacheStatistics() {
+        return "Employee cache: " + employeeDAO.getStatistics() + " | Customer cache: " + customerDAO.getStatistics();
+    }
+
+    // =========================================================
+    // DATA CHANGE NOTIFICATIONS
+    // =========================================================
+
+    /**
+     * Registers a listener that is told about every successful create, update and delete.
+     */
+    public void addDataChangeListener(DataChangeListener listener) {
+        dataChangeListeners.add(listener);
+    }
+
+    public void removeDataChangeListener(DataChangeListener listener) {
+        dataChangeListeners.remove(listener);
+    }
+
+    private void fireDataChanged(DataChangeEvent<?> event) {
+        for (DataChangeListener listener : dataChangeListeners) {
+            try {
+                listener.onDataChanged(event);
+            } catch (RuntimeException e) {
+                // The write itself succeeded; a failing listener must not turn it into an error
+                System.err.println("Data change listener failed for " + event + ": " + e.getMessage());
+            }
+        }
+    }
+
     // =========================================================
     // CRUD OPERATIONS (Employee)
     // =========================================================
 
+    /**
+     * Validates and saves a new employee. The aggregates and listeners are only updated once the
+     * row is written.
+     * @throws exception.DuplicateKeyException if an employee with the same ID exists.
+     * @throws exception.DataAccessException if the row could not be written.
+     */
     public void saveEmployee(Employee employee) throws IllegalArgumentException {
+        authService.requirePermission(Permission.EMPLOYEE_WRITE);
         if (!validateEmployee(employee)) {
             throw new IllegalArgumentException("Employee validation failed. Name and Job Title must not be empty, Age must be > 18.");
         }
-        employeeDAO.save(employee);
+        synchronized (writeLock) {
+            employeeDAO.save(employee);
+            aggregates.employeeAdded(employee);
+            fireDataChanged(DataChangeEvent.created(Employee.class, employee));
+        }
     }
 
     public Optional<Employee> getEmployeeById(String id) {
-        return Optional.ofNullable(employeeDAO.findById(id));
+        authService.requirePermission(Permission.EMPLOYEE_READ);
+        return findEmployee(id);
+    }
+
+    private Optional<Employee> findEmployee(String id) {
+        try {
+            return Optional.ofNullable(employeeDAO.findById(id));
+        } catch (CustomExceptions.RecordNotFoundException e) {
+            return Optional.empty();
+        }
     }
 
     public List<Employee> getAllEmployees() {
+        authService.requirePermission(Permission.EMPLOYEE_READ);
         return employeeDAO.findAll();
     }
 
-    public void updateEmployee(Employee employee) throws IllegalArgumentException {
+    /**
+     * Streams every employee from a database cursor. The caller must close the stream.
+     */
+    public Stream<Employee> streamAllEmployees() {
+        authService.requirePermission(Permission.EMPLOYEE_READ);
+        return employeeDAO.streamAll();
+    }
+
+    /**
+     * Fetches one page of employees using keyset pagination (constant cost for any page).
+     * @param sortColumn "id", "name" or "jobTitle" (null sorts by id).
+     * @param pageSize Maximum number of employees on the page.
+     * @param continuationToken Token from the previous page, or null for the first page.
+     * @return The page and the token for the next one.
+     */
+    public Page<Employee> getEmployeePage(String sortColumn, int pageSize, String continuationToken) {
+        authService.requirePermission(Permission.EMPLOYEE_READ);
+        return employeeDAO.findPage(sortColumn, pageSize, continuationToken);
+    }
+
+    /**
+     * Fetches the page of employees starting at an absolute row position (for random access).
+     */
+    public Page<Employee> getEmployeePageAt(String sortColumn, long offset, int pageSize) {
+        authService.requirePermission(Permission.EMPLOYEE_READ);
+        return employeeDAO.findPageAt(sortColumn, offset, pageSize);
+    }
+
+    public long countEmployees() {
+        return employeeDAO.count();
+    }
+
+    /**
+     * Validates and updates an existing employee.
+     * @return true if the employee was updated, false if no employee has its ID.
+     * @throws exception.DataAccessException if the row could not be written.
+     */
+    public boolean updateEmployee(Employee employee) throws IllegalArgumentException {
+        authService.requirePermission(Permission.EMPLOYEE_WRITE);
         if (!validateEmployee(employee)) {
             throw new IllegalArgumentException("Employee validation failed during update.");
         }
-        employeeDAO.update(employee);
+        synchronized (writeLock) {
+            Optional<Employee> previous = findEmployee(employee.getId());
+            boolean updated = employeeDAO.update(employee);
+            if (updated) {
+                previous.ifPresentOrElse(before -> aggregates.employeeUpdated(before, employee), aggregates::invalidate);
+                fireDataChanged(previous.isPresent()
+                        ? DataChangeEvent.updated(Employee.class, previous.get(), employee)
+                        : DataChangeEvent.bulkChanged(Employee.class));
+            }
+            return updated;
+        }
     }
 
     public boolean deleteEmployee(String id) {
-        return employeeDAO.delete(id);
+        authService.requirePermission(Permission.EMPLOYEE_WRITE);
+        synchronized (writeLock) {
+            Optional<Employee> previous = findEmployee(id);
+            boolean deleted = employeeDAO.delete(id);
+            if (deleted) {
+                previous.ifPresentOrElse(aggregates::employeeRemoved, aggregates::invalidate);
+                fireDataChanged(previous.isPresent()
+                        ? DataChangeEvent.deleted(Employee.class, previous.get())
+                        : DataChangeEvent.bulkChanged(Employee.class));
+            }
+            return deleted;
+        }
     }
 
     // =========================================================
     // CRUD OPERATIONS (Customer)
     // =========================================================
 
+    /**
+     * Validates and saves a new customer. The aggregates and listeners are only updated once the
+     * row is written.
+     * @throws exception.DuplicateKeyException if a customer with the same ID exists.
+     * @throws exception.DataAccessException if the row could not be written.
+     */
     public void saveCustomer(Customer customer) throws IllegalArgumentException {
+        authService.requirePermission(Permission.CUSTOMER_WRITE);
         // NOTE: Adjusted to handle the date picker change, but kept your original validation style
         if (!validateCustomer(customer) || customer.getLastPurchaseDate() == null) {
             throw new IllegalArgumentException("Customer validation failed. Name, Membership Level, and Last Purchase Date must be valid.");
         }
-        customerDAO.save(customer);
+        synchronized (writeLock) {
+            customerDAO.save(customer);
+            aggregates.customerAdded(customer);
+            fireDataChanged(DataChangeEvent.created(Customer.class, customer));
+        }
     }
 
     public Optional<Customer> getCustomerById(String id) {
-        return Optional.ofNullable(customerDAO.findById(id));
+        authService.requirePermission(Permission.CUSTOMER_READ);
+        return findCustomer(id);
+    }
+
+    private Optional<Customer> findCustomer(String id) {
+        try {
+            return Optional.ofNullable(customerDAO.findById(id));
+        } catch (CustomExceptions.RecordNotFoundException e) {
+            return Optional.empty();
+        }
     }
 
     public List<Customer> getAllCustomers() {
+        authService.requirePermission(Permission.CUSTOMER_READ);
         return customerDAO.findAll();
     }
 
-    public void updateCustomer(Customer customer) throws IllegalArgumentException {
+    /**
+     * Streams every customer from a database cursor. The caller must close the stream.
+     */
+    public Stream<Customer> streamAllCustomers() {
+        authService.requirePermission(Permission.CUSTOMER_READ);
+        return customerDAO.streamAll();
+    }
+
+    /**
+     * Fetches one page of customers using keyset pagination (constant cost for any page).
+     * @param sortColumn "id", "name" or "membershipLevel" (null sorts by id).
+     * @param pageSize Maximum number of customers on the page.
+     * @param continuationToken Token from the previous page, or null for the first page.
+     * @return The page and the token for the next one.
+     */
+    public Page<Customer> getCustomerPage(String sortColumn, int pageSize, String continuationToken) {
+        authService.requirePermission(Permission.CUSTOMER_READ);
+        return customerDAO.findPage(sortColumn, pageSize, continuationToken);
+    }
+
+    /**
+     * Fetches the page of customers starting at an absolute row position (for random access).
+     */
+    public Page<Customer> getCustomerPageAt(String sortColumn, long offset, int pageSize) {
+        authService.requirePermission(Permission.CUSTOMER_READ);
+        return customerDAO.findPageAt(sortColumn, offset, pageSize);
+    }
+
+    public long countCustomers() {
+        return customerDAO.count();
+    }
+
+    /**
+     * Validates and updates an existing customer.
+     * @return true if the customer was updated, false if no customer has its ID.
+     * @throws exception.DataAccessException if the row could not be written.
+     */
+    public boolean updateCustomer(Customer customer) throws IllegalArgumentException {
+        authService.requirePermission(Permission.CUSTOMER_WRITE);
         // NOTE: Adjusted to handle the date picker change, but kept your original validation style
         if (!validateCustomer(customer) || customer.getLastPurchaseDate() == null) {
             throw new IllegalArgumentException("Customer validation failed during update.");
         }
-        customerDAO.update(customer);
+        synchronized (writeLock) {
+            Optional<Customer> previous = findCustomer(customer.getId());
+            boolean updated = customerDAO.update(customer);
+            if (updated) {
+                previous.ifPresentOrElse(before -> aggregates.customerUpdated(before, customer), aggregates::invalidate);
+                fireDataChanged(previous.isPresent()
+                        ? DataChangeEvent.updated(Customer.class, previous.get(), customer)
+                        : DataChangeEvent.bulkChanged(Customer.class));
+            }
+            return updated;
+        }
     }
 
     public boolean deleteCustomer(String id) {
-        return customerDAO.delete(id);
+        authService.requirePermission(Permission.CUSTOMER_WRITE);
+        synchronized (writeLock) {
+            Optional<Customer> previous = findCustomer(id);
+            boolean deleted = customerDAO.delete(id);
+            if (deleted) {
+                previous.ifPresentOrElse(aggregates::customerRemoved, aggregates::invalidate);
+                fireDataChanged(previous.isPresent()
+                        ? DataChangeEvent.deleted(Customer.class, previous.get())
+                        : DataChangeEvent.bulkChanged(Customer.class));
+            }
+            return deleted;
+        }
     }
 
+    // =========================================================
+    // BULK OPERATIONS (Batched, one transaction per call)
+    // =========================================================
+
+    /**
+     * Validates and saves many employees using JDBC batching inside a single transaction.
+     * Validation runs over the whole collection first, so nothing is written if any entry is invalid.
+     * @param employees The employees to create.
+     * @param batchSize Number of rows per JDBC batch.
+     * @return The number of employees saved.
+     * @throws IllegalArgumentException if any employee fails validation.
+     */
+    public int saveEmployees(Collection<Employee> employees, int batchSize) throws IllegalArgumentException {
+        authService.requirePermission(Permission.EMPLOYEE_WRITE);
+        int index = 0;
+        for (Employee employee : employees) {
+            if (!validateEmployee(employee)) {
+                throw new IllegalArgumentException("Employee validation failed at row " + index + " (" + employee.getName() + ").");
+            }
+            index++;
+        }
+        synchronized (writeLock) {
+            int saved = employeeDAO.saveAll(employees, batchSize);
+            employees.forEach(aggregates::employeeAdded);
+            fireDataChanged(DataChangeEvent.bulkChanged(Employee.class));
+            return saved;
+        }
+    }
+
+    public int saveEmployees(Collection<Employee> employees) throws IllegalArgumentException {
+        return saveEmployees(employees, GenericDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    public int updateEmployees(Collection<Employee> employees, int batchSize) throws IllegalArgumentException {
+        authService.requirePermission(Permission.EMPLOYEE_WRITE);
+        int index = 0;
+        for (Employee employee : employees) {
+            if (!validateEmployee(employee)) {
+                throw new IllegalArgumentException("Employee validation failed during bulk update at row " + index + ".");
+            }
+            index++;
+        }
+        synchronized (writeLock) {
+            try {
+                return employeeDAO.updateAll(employees, batchSize);
+            } finally {
+                // Previous values are not known without one lookup per row; rebuild on next read instead
+                aggregates.invalidate();
+                fireDataChanged(DataChangeEvent.bulkChanged(Employee.class));
+            }
+        }
+    }
+
+    public int updateEmployees(Collection<Employee> employees) throws IllegalArgumentException {
+        return updateEmployees(employees, GenericDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    public int deleteEmployees(Collection<String> ids) {
+        authService.requirePermission(Permission.EMPLOYEE_WRITE);
+        synchronized (writeLock) {
+            try {
+                return employeeDAO.deleteAll(ids);
+            } finally {
+                aggregates.invalidate();
+                fireDataChanged(DataChangeEvent.bulkChanged(Employee.class));
+            }
+        }
+    }
+
+    /**
+     * Validates and saves many customers using JDBC batching inside a single transaction.
+     * @param customers The customers to create.
+     * @param batchSize Number of rows per JDBC batch.
+     * @return The number of customers saved.
+     * @throws IllegalArgumentException if any customer fails validation.
+     */
+    public int saveCustomers(Collection<Customer> customers, int batchSize) throws IllegalArgumentException {
+        authService.requirePermission(Permission.CUSTOMER_WRITE);
+        int index = 0;
+        for (Customer customer : customers) {
+            if (!validateCustomer(customer) || customer.getLastPurchaseDate() == null) {
+                throw new IllegalArgumentException("Customer validation failed at row " + index + " (" + customer.getName() + ").");
+            }
+            index++;
+        }
+        synchronized (writeLock) {
+            int saved = customerDAO.saveAll(customers, batchSize);
+            customers.forEach(aggregates::customerAdded);
+            fireDataChanged(DataChangeEvent.bulkChanged(Customer.class));
+            return saved;
+        }
+    }
+
+    public int saveCustomers(Collection<Customer> customers) throws IllegalArgumentException {
+        return saveCustomers(customers, GenericDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    public int updateCustomers(Collection<Customer> customers, int batchSize) throws IllegalArgumentException {
+        authService.requirePermission(Permission.CUSTOMER_WRITE);
+        int index = 0;
+        for (Customer customer : customers) {
+            if (!validateCustomer(customer) || customer.getLastPurchaseDate() == null) {
+                throw new IllegalArgumentException("Customer validation failed during bulk update at row " + index + ".");
+            }
+            index++;
+        }
+        synchronized (writeLock) {
+            try {
+                return customerDAO.updateAll(customers, batchSize);
+            } finally {
+                aggregates.invalidate();
+                fireDataChanged(DataChangeEvent.bulkChanged(Customer.class));
+            }
+        }
+    }
+
+    public int updateCustomers(Collection<Customer> customers) throws IllegalArgumentException {
+        return updateCustomers(customers, GenericDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    public int deleteCustomers(Collection<String> ids) {
+        authService.requirePermission(Permission.CUSTOMER_WRITE);
+        synchronized (writeLock) {
+            try {
+                return customerDAO.deleteAll(ids);
+            } finally {
+                aggregates.invalidate();
+                fireDataChanged(DataChangeEvent.bulkChanged(Customer.class));
+            }
+        }
+    }
 
     // =========================================================
 // USER ACCOUNT MANAGEMENT (Delegate Calls to AuthService)
@@ -130,15 +498,28 @@ public class ManagementService {
      * @throws IllegalArgumentException if the username is already taken or inputs are invalid.
      */
     public void registerNewUser(String username, String plainPassword, String role) throws IllegalArgumentException {
+        authService.requirePermission(Permission.USER_MANAGE);
         // The AuthService handles the security (hashing) and uniqueness check.
         authService.registerNewUser(username, plainPassword, role);
     }
 
+    /**
+     * Registers many user accounts at once: one uniqueness lookup, parallel password hashing and one
+     * batched insert. Invalid or taken entries are reported per row and do not stop the others.
+     * @param requests The accounts to create.
+     * @return One result per request, in the same order.
+     */
+    public List<UserProvisioning.Result> registerNewUsers(List<UserProvisioning.Request> requests) {
+        authService.requirePermission(Permission.USER_MANAGE);
+        return authService.registerNewUsers(requests);
+    }
+
     /**
      * Retrieves all user accounts for administrative display.
      * @return List of all User objects.
      */
     public List<model.User> getAllUsers() {
+        authService.requirePermission(Permission.USER_MANAGE);
         return authService.getAllUsers();
     }
 
@@ -148,6 +529,7 @@ public class ManagementService {
      * @return true if deletion was successful.
      */
     public boolean deleteUser(String username) {
+        authService.requirePermission(Permission.USER_MANAGE);
         return authService.deleteUser(username);
     }
 
@@ -182,82 +564,181 @@ public class ManagementService {
     // =========================================================
 
     // Dashboard Metrics
+    // Reads are served in constant time from the materialized AnalyticsAggregates.
+    // If they cannot be (re)built, the computeXxx methods below run the full query instead.
     public double getAverageAge() {
-        List<Person> people = (List<Person>) (List<?>) getAllEmployees();
-        people.addAll(getAllCustomers());
-        return analyticsEngine.calculateAverageAge(people);
+        authService.requirePermission(Permission.ANALYTICS_VIEW);
+        return ensureAggregates() ? aggregates.getAverageAge() : computeAverageAge();
     }
 
     public double getAverageSalary() {
-        return analyticsEngine.calculateAverageSalary(getAllEmployees());
+        authService.requirePermission(Permission.ANALYTICS_VIEW);
+        return ensureAggregates() ? aggregates.getAverageSalary() : computeAverageSalary();
     }
 
     // This method is likely for the dashboard/basic count, not the deep analytics map
     public long getMembershipCount(String level) {
-        return analyticsEngine.countMembershipLevel(getAllCustomers(), level);
+        authService.requirePermission(Permission.ANALYTICS_VIEW);
+        return ensureAggregates() ? aggregates.countMembershipLevel(level) : computeMembershipCount(level);
     }
 
     // --- NEW ANALYTICS METHODS (Required by AnalyticsPanel) ---
 
     /**
-     * Delegates calculation of average salary per job title to the AnalyticsEngine.
+     * Returns the average salary per job title from the maintained aggregates.
      * @return Map of job title to average salary.
      */
     public Map<String, Double> getAverageSalaryByJobTitle() {
-        return analyticsEngine.getAverageSalaryByJobTitle(getAllEmployees());
+        authService.requirePermission(Permission.ANALYTICS_VIEW);
+        return ensureAggregates() ? aggregates.getAverageSalaryByJobTitle() : computeAverageSalaryByJobTitle();
     }
 
     /**
-     * Delegates calculation of employee count per job title to the AnalyticsEngine.
+     * Returns the employee count per job title from the maintained aggregates.
      * @return Map of job title to employee count.
      */
     public Map<String, Integer> getEmployeeCountByJobTitle() {
-        return analyticsEngine.getEmployeeCountByJobTitle(getAllEmployees());
+        authService.requirePermission(Permission.ANALYTICS_VIEW);
+        return ensureAggregates() ? aggregates.getEmployeeCountByJobTitle() : computeEmployeeCountByJobTitle();
     }
 
     /**
-     * Delegates calculation of customer count per membership level to the AnalyticsEngine.
+     * Returns the customer count per membership level from the maintained aggregates.
      * @return Map of membership level to customer count.
      */
     public Map<String, Integer> getCustomerCountByMembershipLevel() {
-        return analyticsEngine.getCustomerCountByMembershipLevel(getAllCustomers());
+        authService.requirePermission(Permission.ANALYTICS_VIEW);
+        return ensureAggregates() ? aggregates.getCustomerCountByMembershipLevel() : computeCustomerCountByMembershipLevel();
+    }
+
+    // --- Materialized Aggregate Maintenance ---
+
+    /**
+     * Rebuilds the materialized aggregates from the database (used at startup and after bulk changes).
+     * Runs under the write lock: every write applies its delta under the same lock after its commit,
+     * so no committed write can be in the snapshot and still have its delta pending (which would count
+     * it twice). Writes wait for the rebuild, which is four aggregate queries.
+     * @return true if the aggregates are now initialized.
+     */
+    public boolean rebuildAnalyticsAggregates() {
+        synchronized (writeLock) {
+            long version = aggregates.beginRebuild();
+            AnalyticsSnapshot snapshot = computeSnapshot();
+            return aggregates.rebuild(version,
+                    snapshot.getEmployeeCountByJobTitle(),
+                    snapshot.getAverageSalaryByJobTitle(),
+                    snapshot.getCustomerCountByMembershipLevel(),
+                    snapshot.getAverageAge());
+        }
+    }
+
+    /**
+     * Compares the maintained aggregates against a full recompute from the database.
+     * @return A list of discrepancies; empty if the aggregates are consistent.
+     */
+    public List<String> verifyAnalyticsAggregates() {
+        authService.requirePermission(Permission.MAINTENANCE);
+        synchronized (writeLock) {
+            AnalyticsSnapshot snapshot = computeSnapshot();
+            return aggregates.findDiscrepancies(
+                    snapshot.getEmployeeCountByJobTitle(),
+                    snapshot.getAverageSalaryByJobTitle(),
+                    snapshot.getCustomerCountByMembershipLevel(),
+                    snapshot.getAverageAge());
+        }
+    }
+
+    private boolean ensureAggregates() {
+        return aggregates.isInitialized() || rebuildAnalyticsAggregates();
+    }
+
+    // --- Full Recompute ---
+    // When an AnalyticsDAO is available the aggregates run as GROUP BY / AVG / COUNT queries
+    // in the database. Otherwise (non-SQL backends) rows are streamed from the DAO cursors
+    // into the AnalyticsEngine, so memory stays flat no matter how large the tables grow.
+
+    private AnalyticsSnapshot computeSnapshot() {
+        if (analyticsDAO != null) {
+            // One read transaction, so the four aggregates describe the same state of the tables
+            return analyticsDAO.getSnapshot();
+        }
+        return new AnalyticsSnapshot(computeEmployeeCountByJobTitle(), computeAverageSalaryByJobTitle(),
+                computeCustomerCountByMembershipLevel(), computeAverageAge());
+    }
+
+    private double computeAverageAge() {
+        if (analyticsDAO != null) {
+            return analyticsDAO.getAverageAge();
+        }
+        // One table after the other, so only one reader connection is held at a time
+        IntSummaryStatistics ages;
+        try (Stream<Employee> employees = employeeDAO.streamAll()) {
+            ages = employees.mapToInt(Person::getAge).summaryStatistics();
+        }
+        try (Stream<Customer> customers = customerDAO.streamAll()) {
+            ages.combine(customers.mapToInt(Person::getAge).summaryStatistics());
+        }
+        return ages.getAverage();
+    }
+
+    private double computeAverageSalary() {
+        if (analyticsDAO != null) {
+            return analyticsDAO.getAverageSalary();
+        }
+        try (Stream<Employee> employees = employeeDAO.streamAll()) {
+            return analyticsEngine.calculateAverageSalary(employees);
+        }
+    }
+
+    private long computeMembershipCount(String level) {
+        if (analyticsDAO != null) {
+            return analyticsDAO.countMembershipLevel(level);
+        }
+        try (Stream<Customer> customers = customerDAO.streamAll()) {
+            return analyticsEngine.countMembershipLevel(customers, level);
+        }
+    }
+
+    private Map<String, Double> computeAverageSalaryByJobTitle() {
+        if (analyticsDAO != null) {
+            return analyticsDAO.getAverageSalaryByJobTitle();
+        }
+        try (Stream<Employee> employees = employeeDAO.streamAll()) {
+            return analyticsEngine.getAverageSalaryByJobTitle(employees);
+        }
+    }
+
+    private Map<String, Integer> computeEmployeeCountByJobTitle() {
+        if (analyticsDAO != null) {
+            return analyticsDAO.getEmployeeCountByJobTitle();
+        }
+        try (Stream<Employee> employees = employeeDAO.streamAll()) {
+            return analyticsEngine.getEmployeeCountByJobTitle(employees);
+        }
+    }
+
+    private Map<String, Integer> computeCustomerCountByMembershipLevel() {
+        if (analyticsDAO != null) {
+            return analyticsDAO.getCustomerCountByMembershipLevel();
+        }
+        try (Stream<Customer> customers = customerDAO.streamAll()) {
+            return analyticsEngine.getCustomerCountByMembershipLevel(customers);
+        }
     }
 
     // =========================================================
     // CSV FILE EXPORT OPERATIONS
     // =========================================================
 
-    public void exportEmployeesToCsv(String filePath) throws IOException {
-        List<Employee> employees = getAllEmployees();
+    public long exportEmployeesToCsv(String filePath) throws IOException {
+        authService.requirePermission(Permission.EMPLOYEE_EXPORT);
         String[] header = {"ID", "Name", "Job Title", "Age", "Salary"};
-
-        List<String[]> dataRows = employees.stream()
-                .map(e -> new String[]{
-                        e.getId(),
-                        e.getName(),
-                        e.getJobTitle(),
-                        String.valueOf(e.getAge()),
-                        String.format("%.2f", e.getSalary())
-                })
-                .collect(Collectors.toList());
-
-        DataExporter.exportToCsv(filePath, header, dataRows);
+        return csvExportDAO.exportEmployeesToCsv(filePath, header);
     }
 
-    public void exportCustomersToCsv(String filePath) throws IOException {
-        List<Customer> customers = getAllCustomers();
+    public long exportCustomersToCsv(String filePath) throws IOException {
+        authService.requirePermission(Permission.CUSTOMER_EXPORT);
         String[] header = {"ID", "Name", "Age", "Membership Level", "Last Purchase Date"};
-
-        List<String[]> dataRows = customers.stream()
-                .map(c -> new String[]{
-                        c.getId(),
-                        c.getName(),
-                        String.valueOf(c.getAge()),
-                        c.getMembershipLevel(),
-                        c.getLastPurchaseDate() != null ? c.getLastPurchaseDate().toString() : ""
-                })
-                .collect(Collectors.toList());
-
-        DataExporter.exportToCsv(filePath, header, dataRows);
+        return csvExportDAO.exportCustomersToCsv(filePath, header);
     }
-}
\ No newline at end of file
+}
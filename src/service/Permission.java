@@ -0,0 +1,31 @@
+package service;
+
+/**
+ * The operations guarded by role-based access control. Each permission is one bit in a Permissions set.
+ */
+public enum Permission {
+    EMPLOYEE_READ("view employees"),
+    EMPLOYEE_WRITE("create, update or delete employees"),
+    EMPLOYEE_EXPORT("export employees"),
+    CUSTOMER_READ("view customers"),
+    CUSTOMER_WRITE("create, update or delete customers"),
+    CUSTOMER_EXPORT("export customers"),
+    ANALYTICS_VIEW("view analytics"),
+    USER_MANAGE("manage user accounts"),
+    MAINTENANCE("run database maintenance");
+
+    private final String description;
+    private final long bit = 1L << ordinal(); // At most 64 permissions fit in one Permissions mask
+
+    Permission(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    long bit() {
+        return bit;
+    }
+}
@@ -0,0 +1,65 @@
+package service;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * An immutable set of permissions stored as a bit mask, so a check is a single AND.
+ * Built once per role by AccessPolicy and cached by the session, so nothing is recomputed
+ * on each button state refresh or request.
+ */
+public final class Permissions {
+
+    public static final Permissions NONE = new Permissions("none", 0L);
+
+    private final String role;
+    private final long mask;
+
+    private Permissions(String role, long mask) {
+        this.role = role;
+        this.mask = mask;
+    }
+
+    static Permissions of(String role, Permission... permissions) {
+        long mask = 0L;
+        for (Permission permission : permissions) {
+            mask |= permission.bit();
+        }
+        return new Permissions(role, mask);
+    }
+
+    public boolean has(Permission permission) {
+        return (mask & permission.bit()) != 0;
+    }
+
+    /**
+     * @throws SecurityException if the permission is missing.
+     */
+    public void require(Permission permission) {
+        if ((mask & permission.bit()) == 0) {
+            throw new SecurityException("Role '" + role + "' may not " + permission.getDescription() + ".");
+        }
+    }
+
+    /**
+     * @return The role these permissions were compiled for.
+     */
+    public String getRole() {
+        return role;
+    }
+
+    public Set<Permission> toSet() {
+        Set<Permission> result = EnumSet.noneOf(Permission.class);
+        for (Permission permission : Permission.values()) {
+            if (has(permission)) {
+                result.add(permission);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return role + toSet();
+    }
+}
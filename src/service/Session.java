@@ -0,0 +1,76 @@
+package service;
+
+import model.User;
+
+/**
+ * One logged-in user of a multi-user front-end (e.g. the HTTP API).
+ * The token is an opaque random string handed to the client; the user and the role's compiled
+ * Permissions are captured at login, so permission checks on later requests are a bit test.
+ * Immutable except for the last-access time, which is updated without locking.
+ */
+public final class Session {
+
+    private final String token;
+    private final User user;
+    private final Permissions permissions;
+    private final long createdAtMillis;
+    private volatile long lastAccessMillis;
+
+    Session(String token, User user, long nowMillis) {
+        this.token = token;
+        this.user = user;
+        this.permissions = AccessPolicy.permissionsFor(user);
+        this.createdAtMillis = nowMillis;
+        this.lastAccessMillis = nowMillis;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    public String getRole() {
+        return user.getRole();
+    }
+
+    public Permissions getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * @return true for sessions registered in the session table; false for single-request sessions.
+     */
+    public boolean isRegistered() {
+        return token != null;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch(long nowMillis) {
+        // Concurrent requests may race here; any of their timestamps is good enough for idle expiry
+        lastAccessMillis = nowMillis;
+    }
+
+    boolean isExpired(long nowMillis, long idleTimeoutMillis) {
+        return nowMillis - lastAccessMillis > idleTimeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        // Never print the token
+        return "Session{user='" + user.getUsername() + "', role='" + user.getRole() + "'}";
+    }
+}
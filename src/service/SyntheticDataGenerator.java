@@ -0,0 +1,424 @@
+package service;
+
+import dao.GenericDAO;
+import dao.sqlite.CustomerDAOImpl;
+import dao.sqlite.EmployeeDAOImpl;
+import dao.sqlite.SQLiteConnection;
+import dao.sqlite.UserDAOImpl;
+import model.Customer;
+import model.Employee;
+import model.User;
+import util.PasswordHasher;
+import util.TimeOrderedIds;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills the database with large volumes of realistic Employee, Customer and User rows for load and
+ * soak testing (e.g. 1M or 10M rows).
+ *
+ * Generation is split into fixed-size chunks, each with its own random stream derived from the seed
+ * and the chunk index, so the same seed always produces exactly the same rows regardless of the
+ * number of threads. Chunks are generated in parallel on a worker pool; the calling thread writes
+ * them in chunk order through the DAO batch path (SQLite has a single writer, so inserts are
+ * serialized there, one transaction per chunk). At most two chunks per worker are in flight, which
+ * keeps memory flat for any row count.
+ *
+ * Usage:
+ *   java -cp ... service.SyntheticDataGenerator [generator.properties] [key=value ...]
+ * e.g.
+ *   java -Decms.db.url=jdbc:sqlite:load.sqlite -cp ... service.SyntheticDataGenerator employees=1000000 customers=1000000
+ *
+ * Rows are written directly through the DAOs; a running ManagementService should call
+ * rebuildAnalyticsAggregates() afterwards. Re-running with the same seed against the same
+ * database fails on duplicate IDs (users are skipped), so use a new seed or a fresh file.
+ */
+public class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "Thabo", "Lerato",
+            "Sipho", "Naledi", "David", "Elizabeth", "William", "Barbara", "Ahmed", "Fatima", "Wei", "Mei",
+            "Carlos", "Sofia", "Pieter", "Anika", "Kwame", "Amara", "Raj", "Priya", "Lucas", "Emma"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Nkosi", "Dlamini", "Mokoena", "Naidoo", "Botha",
+            "van der Merwe", "Garcia", "Martinez", "Chen", "Wang", "Khan", "Patel", "Mensah", "O'Brien", "Müller"
+    };
+
+    // Salts keep the random streams of the three entity types independent
+    private static final long EMPLOYEE_SALT = 0x45L;
+    private static final long CUSTOMER_SALT = 0x43L;
+    private static final long USER_SALT = 0x55L;
+
+    private final Config config;
+    private final LocalDate today = LocalDate.now();
+
+    public SyntheticDataGenerator(Config config) {
+        this.config = config;
+    }
+
+    // =========================================================
+    // ENTRY POINT
+    // =========================================================
+
+    public static void main(String[] args) throws Exception {
+        Properties properties = new Properties();
+        for (String arg : args) {
+            if (arg.contains("=")) {
+                String[] pair = arg.split("=", 2);
+                properties.setProperty(pair[0].trim(), pair[1].trim());
+            } else {
+                try (InputStream in = new FileInputStream(arg)) {
+                    Properties fromFile = new Properties();
+                    fromFile.load(in);
+                    // Command line key=value pairs win over the file, whatever the argument order
+                    fromFile.forEach(properties::putIfAbsent);
+                }
+            }
+        }
+
+        Config config = Config.fromProperties(properties);
+        System.out.println("Generating data: " + config);
+        try {
+            new SyntheticDataGenerator(config).run();
+        } finally {
+            SQLiteConnection.getInstance().shutdown();
+        }
+    }
+
+    /**
+     * Generates and inserts all configured rows.
+     */
+    public void run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(config.threads, runnable -> {
+            Thread thread = new Thread(runnable, "data-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            generate("employees", config.employees, EMPLOYEE_SALT, workers, this::employeeChunk, new EmployeeDAOImpl());
+            generate("customers", config.customers, CUSTOMER_SALT, workers, this::customerChunk, new CustomerDAOImpl());
+
+            // Every generated user shares one password, hashed once, so slow hash settings do not dominate
+            String hashedPassword = PasswordHasher.hashPassword(config.userPassword);
+            generate("users", config.users, USER_SALT, workers,
+                    (random, start, size) -> userChunk(random, start, size, hashedPassword), new UserDAOImpl());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Produces one chunk of rows from its own random stream.
+     */
+    @FunctionalInterface
+    private interface ChunkFactory<T> {
+        List<T> create(SplittableRandom random, long firstIndex, int size);
+    }
+
+    private <T> void generate(String label, long count, long salt, ExecutorService workers,
+                              ChunkFactory<T> factory, GenericDAO<T> dao) throws InterruptedException {
+        if (count <= 0) return;
+
+        long start = System.nanoTime();
+        long chunks = (count + config.chunkSize - 1) / config.chunkSize;
+        int maxInFlight = config.threads * 2;
+        Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+        long written = 0;
+
+        for (long chunk = 0; chunk < chunks; chunk++) {
+            long firstIndex = chunk * config.chunkSize;
+            int size = (int) Math.min(config.chunkSize, count - firstIndex);
+            SplittableRandom random = new SplittableRandom(chunkSeed(salt, chunk));
+            inFlight.add(workers.submit(() -> factory.create(random, firstIndex, size)));
+
+            if (inFlight.size() >= maxInFlight) {
+                written += write(inFlight.poll(), dao);
+                reportProgress(label, written, count, start);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            written += write(inFlight.poll(), dao);
+            reportProgress(label, written, count, start);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Generated %,d %s in %.1f s (%,.0f rows/s)%n", written, label, seconds, written / Math.max(seconds, 1e-9));
+    }
+
+    private <T> int write(Future<List<T>> chunk, GenericDAO<T> dao) throws InterruptedException {
+        try {
+            List<T> rows = chunk.get();
+            dao.saveAll(rows, config.batchSize);
+            return rows.size();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data generation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void reportProgress(String label, long written, long total, long startNanos) {
+        // Roughly every 10% (and at the end)
+        long step = Math.max(config.chunkSize, total / 10);
+        if (written % step < config.chunkSize || written == total) {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf("  %s: %,d / %,d (%.0f%%) after %.1f s%n", label, written, total, 100.0 * written / total, seconds);
+        }
+    }
+
+    private long chunkSeed(long salt, long chunk) {
+        long h = config.seed * 0x9E3779B97F4A7C15L + salt;
+        h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L + chunk;
+        return h ^ (h >>> 29);
+    }
+
+    // =========================================================
+    // ROW GENERATION
+    // =========================================================
+
+    private List<Employee> employeeChunk(SplittableRandom random, long firstIndex, int size) {
+        List<Employee> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new Employee(
+                    randomId(random, firstIndex + i),
+                    randomName(random),
+                    config.employeeAge.sample(random),
+                    config.salary.sample(random),
+                    config.jobTitles.sample(random)));
+        }
+        return rows;
+    }
+
+    private List<Customer> customerChunk(SplittableRandom random, long firstIndex, int size) {
+        List<Customer> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new Customer(
+                    randomId(random, firstIndex + i),
+                    randomName(random),
+                    config.customerAge.sample(random),
+                    config.membershipLevels.sample(random),
+                    today.minusDays(config.purchaseRecency.sample(random))));
+        }
+        return rows;
+    }
+
+    private List<User> userChunk(SplittableRandom random, long firstIndex, int size, String hashedPassword) {
+        List<User> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new User(
+                    String.format("%s%08d", config.usernamePrefix, firstIndex + i),
+                    hashedPassword,
+                    config.roles.sample(random)));
+        }
+        return rows;
+    }
+
+    /**
+     * A time-ordered ID like the ones the panels create, with the random bits drawn from the chunk's
+     * stream and the row index as milliseconds after midnight, so a given seed and day reproduce the same IDs.
+     */
+    private String randomId(SplittableRandom random, long index) {
+        return TimeOrderedIds.of(today.toEpochDay() * 86_400_000L + index, random.nextLong(), random.nextLong());
+    }
+
+    private static String randomName(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    // =========================================================
+    // DISTRIBUTIONS
+    // =========================================================
+
+    /**
+     * A categorical distribution, configured as "Value:weight,Value:weight,...".
+     */
+    static final class WeightedChoice {
+        private final String[] values;
+        private final double[] cumulative;
+
+        WeightedChoice(String spec) {
+            String[] entries = spec.split(",");
+            values = new String[entries.length];
+            cumulative = new double[entries.length];
+            double total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                int colon = entries[i].lastIndexOf(':');
+                values[i] = (colon < 0 ? entries[i] : entries[i].substring(0, colon)).trim();
+                double weight = colon < 0 ? 1.0 : Double.parseDouble(entries[i].substring(colon + 1).trim());
+                if (values[i].isEmpty() || weight < 0) {
+                    throw new IllegalArgumentException("Invalid weighted value: '" + entries[i] + "'");
+                }
+                total += weight;
+                cumulative[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Weights must add up to more than 0: " + spec);
+            }
+        }
+
+        String sample(SplittableRandom random) {
+            double point = random.nextDouble() * cumulative[cumulative.length - 1];
+            for (int i = 0; i < cumulative.length; i++) {
+                if (point < cumulative[i]) return values[i];
+            }
+            return values[values.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            return String.join("/", values);
+        }
+    }
+
+    /**
+     * A normal distribution clamped to [min, max], rounded to whole numbers (ages).
+     */
+    static final class ClampedNormal {
+        private final double mean;
+        private final double stddev;
+        private final int min;
+        private final int max;
+
+        ClampedNormal(double mean, double stddev, int min, int max) {
+            this.mean = mean;
+            this.stddev = stddev;
+            this.min = min;
+            this.max = max;
+        }
+
+        int sample(SplittableRandom random) {
+            long value = Math.round(mean + stddev * random.nextGaussian());
+            return (int) Math.max(min, Math.min(max, value));
+        }
+    }
+
+    /**
+     * A log-normal distribution (right-skewed, like real salaries) clamped to [min, max], rounded to cents.
+     */
+    static final class ClampedLogNormal {
+        private final double mu;
+        private final double sigma;
+        private final double min;
+        private final double max;
+
+        ClampedLogNormal(double median, double sigma, double min, double max) {
+            this.mu = Math.log(median);
+            this.sigma = sigma;
+            this.min = min;
+            this.max = max;
+        }
+
+        double sample(SplittableRandom random) {
+            double value = Math.exp(mu + sigma * random.nextGaussian());
+            return Math.round(Math.max(min, Math.min(max, value)) * 100) / 100.0;
+        }
+    }
+
+    /**
+     * An exponential distribution of "days ago", capped at max (most purchases are recent).
+     */
+    static final class Recency {
+        private final double meanDays;
+        private final int maxDays;
+
+        Recency(double meanDays, int maxDays) {
+            this.meanDays = meanDays;
+            this.maxDays = maxDays;
+        }
+
+        long sample(SplittableRandom random) {
+            double days = -meanDays * Math.log(1.0 - random.nextDouble());
+            return Math.min(maxDays, (long) days);
+        }
+    }
+
+    // =========================================================
+    // CONFIGURATION
+    // =========================================================
+
+    /**
+     * Generator settings. Every key has a default, so an empty Properties object is valid.
+     */
+    public static final class Config {
+        long seed;
+        long employees;
+        long customers;
+        long users;
+        int threads;
+        int batchSize;
+        int chunkSize;
+        WeightedChoice jobTitles;
+        WeightedChoice membershipLevels;
+        WeightedChoice roles;
+        ClampedNormal employeeAge;
+        ClampedNormal customerAge;
+        ClampedLogNormal salary;
+        Recency purchaseRecency;
+        String usernamePrefix;
+        String userPassword;
+
+        public static Config fromProperties(Properties p) {
+            Config c = new Config();
+            c.seed = Long.parseLong(p.getProperty("seed", "42"));
+            c.employees = Long.parseLong(p.getProperty("employees", "100000"));
+            c.customers = Long.parseLong(p.getProperty("customers", "100000"));
+            c.users = Long.parseLong(p.getProperty("users", "100"));
+            c.threads = Integer.parseInt(p.getProperty("threads", String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() - 1))));
+            c.batchSize = Integer.parseInt(p.getProperty("batchSize", String.valueOf(GenericDAO.DEFAULT_BATCH_SIZE)));
+            c.chunkSize = Integer.parseInt(p.getProperty("chunkSize", "10000"));
+
+            // Job titles and membership levels match the choices offered by the panels
+            c.jobTitles = new WeightedChoice(p.getProperty("employee.jobTitles",
+                    "Analyst:30,Senior Analyst:18,Manager:10,Director:4,Executive:1,Intern:12,Other:25"));
+            c.employeeAge = new ClampedNormal(
+                    Double.parseDouble(p.getProperty("employee.age.mean", "38")),
+                    Double.parseDouble(p.getProperty("employee.age.stddev", "10")),
+                    Integer.parseInt(p.getProperty("employee.age.min", "19")),
+                    Integer.parseInt(p.getProperty("employee.age.max", "67")));
+            c.salary = new ClampedLogNormal(
+                    Double.parseDouble(p.getProperty("employee.salary.median", "55000")),
+                    Double.parseDouble(p.getProperty("employee.salary.sigma", "0.45")),
+                    Double.parseDouble(p.getProperty("employee.salary.min", "18000")),
+                    Double.parseDouble(p.getProperty("employee.salary.max", "600000")));
+
+            c.membershipLevels = new WeightedChoice(p.getProperty("customer.membershipLevels",
+                    "Bronze:50,Silver:30,Gold:15,Platinum:5"));
+            c.customerAge = new ClampedNormal(
+                    Double.parseDouble(p.getProperty("customer.age.mean", "42")),
+                    Double.parseDouble(p.getProperty("customer.age.stddev", "15")),
+                    Integer.parseInt(p.getProperty("customer.age.min", "18")),
+                    Integer.parseInt(p.getProperty("customer.age.max", "95")));
+            c.purchaseRecency = new Recency(
+                    Double.parseDouble(p.getProperty("customer.purchase.meanDaysAgo", "90")),
+                    Integer.parseInt(p.getProperty("customer.purchase.maxDaysAgo", "1825")));
+
+            c.roles = new WeightedChoice(p.getProperty("user.roles",
+                    "Manager:5,HR Specialist:10,Customer Service Agent:50,Data Analyst:30,Admin:5"));
+            c.usernamePrefix = p.getProperty("user.prefix", "loaduser");
+            c.userPassword = p.getProperty("user.password", "password123");
+
+            if (c.threads <= 0 || c.batchSize <= 0 || c.chunkSize <= 0) {
+                throw new IllegalArgumentException("threads, batchSize and chunkSize must be positive.");
+            }
+            return c;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("seed=%d, employees=%,d, customers=%,d, users=%,d, threads=%d, chunkSize=%d, batchSize=%d, jobTitles=%s, levels=%s",
+                    seed, employees, customers, users, threads, chunkSize, batchSize, jobTitles, membershipLevels);
+        }
+    }
+}
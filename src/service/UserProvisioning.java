@@ -0,0 +1,96 @@
+package service;
+
+/**
+ * Input and per-row output types of bulk user provisioning (AuthenticationService.registerNewUsers).
+ */
+public final class UserProvisioning {
+
+    private UserProvisioning() {
+    }
+
+    /**
+     * Outcome of one requested account.
+     */
+    public enum Status {
+        CREATED,
+        INVALID,   // Missing username, password or role
+        DUPLICATE  // Username already exists, or appears earlier in the same request
+    }
+
+    /**
+     * One account to create.
+     */
+    public static final class Request {
+
+        private final String username;
+        private final String password;
+        private final String role;
+
+        public Request(String username, String password, String role) {
+            this.username = username;
+            this.password = password;
+            this.role = role;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public String getRole() {
+            return role;
+        }
+    }
+
+    /**
+     * The outcome for the request at the same position in the input list.
+     */
+    public static final class Result {
+
+        private final int row;
+        private final String username;
+        private final Status status;
+        private final String message;
+
+        Result(int row, String username, Status status, String message) {
+            this.row = row;
+            this.username = username;
+            this.status = status;
+            this.message = message;
+        }
+
+        /**
+         * @return The zero-based position of the request in the input list.
+         */
+        public int getRow() {
+            return row;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return Why the account was not created (null when it was).
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        public boolean isCreated() {
+            return status == Status.CREATED;
+        }
+
+        @Override
+        public String toString() {
+            return row + "\t" + username + "\t" + status + (message == null ? "" : "\t" + message);
+        }
+    }
+}
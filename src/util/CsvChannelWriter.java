@@ -0,0 +1,246 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * A streaming CSV writer on top of a FileChannel with large reusable buffers.
+ * Fields are quoted and escaped character by character straight into the output buffer, so no
+ * per-row String is built and the writer's memory use is fixed regardless of the number of rows.
+ * Output format matches the original exporter: every field in double quotes, embedded quotes
+ * doubled, rows terminated by "\n", UTF-8 encoded.
+ */
+public class CsvChannelWriter implements Closeable {
+
+    private static final int DEFAULT_BUFFER_BYTES = 1 << 20; // 1 MB per channel write
+
+    private final FileChannel channel;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final char[] digits = new char[20]; // scratch space for number formatting
+
+    private boolean atRowStart = true;
+    private long rowCount = 0;
+
+    public CsvChannelWriter(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Opens (creating or truncating) the file for writing.
+     * @param path The output file.
+     * @param bufferBytes Size of the byte buffer flushed to the channel in one write.
+     * @throws IOException If the file cannot be opened.
+     */
+    public CsvChannelWriter(Path path, int bufferBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.bytes = ByteBuffer.allocateDirect(bufferBytes);
+        this.chars = CharBuffer.allocate(Math.max(1024, bufferBytes / 4));
+    }
+
+    // =========================================================
+    // FIELD & ROW OUTPUT
+    // =========================================================
+
+    /**
+     * Writes a text field, quoting it and doubling any embedded quotes. Null is written as "".
+     */
+    public void writeField(CharSequence value) throws IOException {
+        startField();
+        put('"');
+        if (value != null) {
+            for (int i = 0, n = value.length(); i < n; i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    put('"');
+                }
+                put(c);
+            }
+        }
+        put('"');
+    }
+
+    /**
+     * Writes an integer field without allocating a String.
+     */
+    public void writeField(long value) throws IOException {
+        startField();
+        put('"');
+        putLong(value);
+        put('"');
+    }
+
+    /**
+     * Writes a number with exactly two decimal places (equivalent to "%.2f", rounding half up).
+     */
+    public void writeDecimal2(double value) throws IOException {
+        writeCents(Math.round(value * 100.0));
+    }
+
+    /**
+     * Writes an amount stored in hundredths (e.g. cents) with exactly two decimal places.
+     */
+    public void writeCents(long cents) throws IOException {
+        startField();
+        put('"');
+        if (cents < 0) {
+            put('-');
+            cents = -cents;
+        }
+        putLong(cents / 100);
+        put('.');
+        long fraction = cents % 100;
+        put((char) ('0' + fraction / 10));
+        put((char) ('0' + fraction % 10));
+        put('"');
+    }
+
+    /**
+     * Writes a date stored as an epoch day in ISO-8601 form (yyyy-MM-dd), as LocalDate.toString() would.
+     */
+    public void writeEpochDay(long epochDay) throws IOException {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            writeField(date.toString()); // Signed/expanded year form
+            return;
+        }
+        startField();
+        put('"');
+        putPadded(year, 4);
+        put('-');
+        putPadded(date.getMonthValue(), 2);
+        put('-');
+        putPadded(date.getDayOfMonth(), 2);
+        put('"');
+    }
+
+    /**
+     * Writes a complete row of text fields.
+     */
+    public void writeRow(String... fields) throws IOException {
+        for (String field : fields) {
+            writeField(field);
+        }
+        endRow();
+    }
+
+    /**
+     * Terminates the current row.
+     */
+    public void endRow() throws IOException {
+        put('\n');
+        atRowStart = true;
+        rowCount++;
+    }
+
+    /**
+     * @return The number of rows written so far (including any header row).
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    // =========================================================
+    // BUFFER MANAGEMENT
+    // =========================================================
+
+    private void startField() throws IOException {
+        if (!atRowStart) {
+            put(',');
+        }
+        atRowStart = false;
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            // Cannot be negated; rare enough to take the allocating path
+            String text = Long.toString(value);
+            for (int i = 0; i < text.length(); i++) put(text.charAt(i));
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (pos < digits.length) {
+            put(digits[pos++]);
+        }
+    }
+
+    private void putPadded(int value, int width) throws IOException {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            put((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encodeChars(false);
+        }
+        chars.put(c);
+    }
+
+    /**
+     * Encodes the pending characters into the byte buffer, writing to the channel whenever it fills.
+     * An unpaired high surrogate at the end of the char buffer is kept for the next call.
+     */
+    private void encodeChars(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                flushBytes();
+            } else if (result.isError()) {
+                result.throwException();
+            } else {
+                break;
+            }
+        }
+        chars.compact();
+    }
+
+    private void flushBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Flushes all buffered output and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            encodeChars(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                flushBytes();
+            }
+            flushBytes();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV records one at a time from a character stream, so files of any size can be imported
+ * with fixed memory. Understands the format written by CsvChannelWriter and most spreadsheet tools:
+ * comma separated, fields optionally in double quotes, doubled quotes inside quoted fields, quoted
+ * fields may span lines, and "\n" or "\r\n" line endings.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber = 1;
+    private long recordLineNumber = 1;
+    private int pushedBack = -2; // -2 = nothing pushed back
+
+    /**
+     * @param reader The source; wrap it in a BufferedReader for files.
+     */
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     * @return The record's fields, or null at end of input. Blank lines are skipped.
+     * @throws IOException On read errors or an unterminated quoted field.
+     */
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean inQuotes = false;
+        boolean sawAnything = false;
+        recordLineNumber = lineNumber;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (inQuotes) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLineNumber);
+                }
+                if (!sawAnything) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"'); // Escaped quote
+                    } else {
+                        inQuotes = false;
+                        unread(next);
+                    }
+                } else {
+                    if (c == '\n') lineNumber++;
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '\r') {
+                continue; // Part of a "\r\n" line ending
+            }
+            if (c == '\n') {
+                lineNumber++;
+                if (!sawAnything) {
+                    recordLineNumber = lineNumber; // Skip blank lines
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            sawAnything = true;
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * @return The line number on which the last record returned by readRecord() started (1-based).
+     */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
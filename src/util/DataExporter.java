@@ -1,8 +1,10 @@
 package util;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Utility class for exporting data from the application model lists to CSV files.
@@ -17,33 +19,31 @@ public class DataExporter {
      * @throws IOException If there is an error writing to the file.
      */
     public static void exportToCsv(String filePath, String[] header, List<String[]> dataRows) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write Header
-            writer.write(convertToCsvRow(header));
-
-            // Write Data Rows
-            for (String[] row : dataRows) {
-                writer.write(convertToCsvRow(row));
-            }
-
-            System.out.println("Data successfully exported to: " + filePath);
-        }
+        exportToCsv(filePath, header, dataRows.stream());
     }
 
     /**
-     * Helper method to convert a String array into a comma-separated, quoted CSV line.
+     * Exports a stream of rows to a CSV file, writing each row as it arrives so the
+     * full dataset is never held in memory. The caller remains responsible for closing the stream.
+     * @param filePath The full path to the output CSV file.
+     * @param header The header row.
+     * @param dataRows The rows to write, typically mapped lazily from a DAO cursor.
+     * @return The number of data rows written.
+     * @throws IOException If there is an error writing to the file.
      */
-    private static String convertToCsvRow(String[] row) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < row.length; i++) {
-            // Enclose fields in double quotes and escape existing quotes for safety
-            sb.append("\"").append(row[i].replace("\"", "\"\"")).append("\"");
+    public static long exportToCsv(String filePath, String[] header, Stream<String[]> dataRows) throws IOException {
+        long rowCount = 0;
+        // Fields are quoted and escaped directly into the writer's buffer (no per-row String)
+        try (CsvChannelWriter writer = new CsvChannelWriter(Paths.get(filePath))) {
+            writer.writeRow(header);
 
-            if (i < row.length - 1) {
-                sb.append(",");
+            Iterator<String[]> rows = dataRows.iterator();
+            while (rows.hasNext()) {
+                writer.writeRow(rows.next());
+                rowCount++;
             }
         }
-        sb.append("\n");
-        return sb.toString();
+        System.out.println("Data successfully exported to: " + filePath + " (" + rowCount + " rows)");
+        return rowCount;
     }
-}
\ No newline at end of file
+}
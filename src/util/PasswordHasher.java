@@ -1,40 +1,366 @@
 package util;
 
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Password hashing with salted PBKDF2-HMAC-SHA256.
+ *
+ * Stored format (self-describing, so the cost can be raised later without breaking old hashes):
+ *   $pbkdf2-sha256$<iterations>$<salt, base64>$<hash, base64>
+ * Hashes written by earlier versions (a bare base64 SHA-256 digest, unsalted) still verify;
+ * needsRehash() reports them so they can be upgraded at the next successful login.
+ *
+ * Cost: -Decms.password.iterations=N sets the iteration count (default 310,000), or
+ * -Decms.password.targetMillis=T calibrates it on startup so one hash takes about T ms on this host.
+ * Run this class (java util.PasswordHasher [targetMillis]) to print a calibrated value.
+ *
+ * pbkdf2 is a hand-rolled loop (it reuses one Mac and buffer instead of allocating per iteration), so
+ * the class checks it against published test vectors and the JDK's PBKDF2WithHmacSHA256 when it is
+ * loaded, and refuses to hash anything if they disagree.
+ *
+ * The Mac and MessageDigest instances are cached per thread. The *Async methods run on a bounded pool
+ * (one thread per core by default, -Decms.password.threads), so a burst of logins cannot take every
+ * CPU away from the rest of the application and UI/request threads do not compute hashes themselves.
+ */
 public class PasswordHasher {
 
-    private static final String ALGORITHM = "SHA-256";
+    private static final String LEGACY_ALGORITHM = "SHA-256";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String PREFIX = "$pbkdf2-sha256$";
+
+    private static final int SALT_BYTES = 16;
+    private static final int DEFAULT_ITERATIONS = 310_000; // OWASP recommendation for PBKDF2-HMAC-SHA256 (2021)
+    private static final int MIN_ITERATIONS = 50_000;
+    private static final int MAX_ITERATIONS = 10_000_000;
+    private static final int CALIBRATION_PROBE_ITERATIONS = 20_000;
+    private static final int BULK_CHUNK = 4; // Passwords per pool task in hashPasswords
+
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HMAC_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Hashing algorithm not found: " + HMAC_ALGORITHM, e);
+        }
+    });
+    private static final ThreadLocal<MessageDigest> LEGACY_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(LEGACY_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Hashing algorithm not found: " + LEGACY_ALGORITHM, e);
+        }
+    });
+    private static final SecureRandom SALT_GENERATOR = new SecureRandom();
+
+    static {
+        selfTest();
+    }
+
+    private static volatile int iterations = initialIterations();
+
+    /**
+     * The verification pool, created on first asynchronous use.
+     */
+    private static final class Pool {
+        private static final int THREADS = Math.max(1, Integer.getInteger("ecms.password.threads", Runtime.getRuntime().availableProcessors()));
+        private static final ExecutorService EXECUTOR = createPool();
+
+        private static ExecutorService createPool() {
+            int queue = Integer.getInteger("ecms.password.queue", 1_000);
+            AtomicInteger threadNumber = new AtomicInteger();
+            // Full queue: the task is rejected (RejectedExecutionException) instead of queuing without bound
+            return new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "ecms-password-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    // =========================================================
+    // HASHING & VERIFICATION
+    // =========================================================
 
     /**
-     * Hashes a plain text password using a cryptographic algorithm (SHA-256).
+     * Hashes a plain text password with a new random salt and the current iteration count.
      * @param password The plain text password.
-     * @return The base64-encoded hash string.
+     * @return The self-describing hash string for storage.
      */
     public static String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
-            byte[] hash = digest.digest(password.getBytes());
-            // Encode the byte array to a Base64 string for easy database storage
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            System.err.println("Hashing algorithm not found: " + ALGORITHM);
-            // In a real application, this should never happen with standard algorithms
-            throw new RuntimeException("Security error during password hashing.", e);
-        }
+        byte[] salt = new byte[SALT_BYTES];
+        SALT_GENERATOR.nextBytes(salt);
+        int cost = iterations;
+        byte[] hash = pbkdf2(password.getBytes(StandardCharsets.UTF_8), salt, cost);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + cost + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
     }
 
     /**
-     * Verifies a plain text password against a stored hash.
+     * Verifies a plain text password against a stored hash (current or legacy format).
      * @param plainPassword The password entered by the user.
      * @param storedHash The hash retrieved from the database.
-     * @return True if the passwords match after hashing, false otherwise.
+     * @return True if the password matches, false otherwise (also for malformed hashes).
      */
     public static boolean verifyPassword(String plainPassword, String storedHash) {
-        // Hash the input password and compare it to the stored hash
-        String newHash = hashPassword(plainPassword);
-        return newHash.equals(storedHash);
+        if (plainPassword == null || storedHash == null) {
+            return false;
+        }
+        if (!storedHash.startsWith(PREFIX)) {
+            return verifyLegacy(plainPassword, storedHash);
+        }
+
+        String[] parts = storedHash.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int cost = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            if (cost < 1 || cost > MAX_ITERATIONS) {
+                return false;
+            }
+            byte[] actual = pbkdf2(plainPassword.getBytes(StandardCharsets.UTF_8), salt, cost);
+            return MessageDigest.isEqual(actual, expected); // Constant time
+        } catch (IllegalArgumentException e) {
+            return false; // Bad number or base64
+        }
+    }
+
+    /**
+     * @return true if the stored hash is in the legacy format or uses fewer iterations than the
+     * current setting, i.e. it should be replaced after the next successful verification.
+     */
+    public static boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PREFIX)) {
+            return true;
+        }
+        int end = storedHash.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(storedHash.substring(PREFIX.length(), end)) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Runs hashPassword on the hashing pool.
+     * @throws java.util.concurrent.RejectedExecutionException if the pool's queue is full.
+     */
+    public static CompletableFuture<String> hashPasswordAsync(String password) {
+        return CompletableFuture.supplyAsync(() -> hashPassword(password), Pool.EXECUTOR);
+    }
+
+    /**
+     * Runs verifyPassword on the hashing pool.
+     * @throws java.util.concurrent.RejectedExecutionException if the pool's queue is full.
+     */
+    public static CompletableFuture<Boolean> verifyPasswordAsync(String plainPassword, String storedHash) {
+        return CompletableFuture.supplyAsync(() -> verifyPassword(plainPassword, storedHash), Pool.EXECUTOR);
+    }
+
+    /**
+     * Hashes many passwords in parallel on the hashing pool (bulk user provisioning) and waits for all.
+     * Work is submitted in small chunks with at most one chunk per pool thread in flight, so logins
+     * arriving meanwhile wait for a few hashes, not for the whole list. If the pool's queue is full,
+     * the calling thread hashes that chunk itself.
+     * @return The hashes, in the order of the passwords.
+     */
+    public static List<String> hashPasswords(List<String> passwords) {
+        String[] hashes = new String[passwords.size()];
+        Semaphore inFlight = new Semaphore(Pool.THREADS);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int start = 0; start < hashes.length; start += BULK_CHUNK) {
+            int from = start;
+            int to = Math.min(hashes.length, start + BULK_CHUNK);
+            Runnable chunk = () -> {
+                for (int i = from; i < to; i++) {
+                    hashes[i] = hashPassword(passwords.get(i));
+                }
+            };
+            inFlight.acquireUninterruptibly();
+            try {
+                chunks.add(CompletableFuture.runAsync(chunk, Pool.EXECUTOR).whenComplete((ignored, error) -> inFlight.release()));
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                chunk.run();
+            }
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture<?>[]::new)).join(); // Also publishes the array writes
+        return Arrays.asList(hashes);
+    }
+
+    // =========================================================
+    // COST CONFIGURATION & CALIBRATION
+    // =========================================================
+
+    public static int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Changes the iteration count used for new hashes (existing hashes keep theirs).
+     */
+    public static void setIterations(int newIterations) {
+        if (newIterations < MIN_ITERATIONS || newIterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations must be between " + MIN_ITERATIONS + " and " + MAX_ITERATIONS + ".");
+        }
+        iterations = newIterations;
+    }
+
+    /**
+     * Measures this host and returns the iteration count for which one hash takes about targetMillis.
+     * Takes roughly a second (JIT warm-up plus timed probes).
+     */
+    public static int calibrate(long targetMillis) {
+        byte[] password = "calibration-password".getBytes(StandardCharsets.UTF_8);
+        byte[] salt = new byte[SALT_BYTES];
+        for (int i = 0; i < 5; i++) {
+            pbkdf2(password, salt, CALIBRATION_PROBE_ITERATIONS); // Warm-up
+        }
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            pbkdf2(password, salt, CALIBRATION_PROBE_ITERATIONS);
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        long calibrated = targetMillis * 1_000_000L * CALIBRATION_PROBE_ITERATIONS / Math.max(1L, fastestNanos);
+        calibrated = calibrated / 1_000 * 1_000; // Round down to a readable number
+        return (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, calibrated));
+    }
+
+    private static int initialIterations() {
+        Long targetMillis = Long.getLong("ecms.password.targetMillis");
+        if (targetMillis != null) {
+            int calibrated = calibrate(targetMillis);
+            System.out.println("Password hashing calibrated to " + calibrated + " PBKDF2 iterations (~" + targetMillis + " ms).");
+            return calibrated;
+        }
+        return Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, Integer.getInteger("ecms.password.iterations", DEFAULT_ITERATIONS)));
+    }
+
+    /**
+     * Prints the calibrated iteration count for a target latency (default 250 ms).
+     */
+    public static void main(String[] args) {
+        System.out.println("PBKDF2 self-test passed."); // Loading the class ran it
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250L;
+        int calibrated = calibrate(targetMillis);
+        setIterations(calibrated);
+        long start = System.nanoTime();
+        hashPassword("calibration-check");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("-Decms.password.iterations=" + calibrated + "   (one hash took " + elapsedMillis + " ms, target " + targetMillis + " ms)");
+    }
+
+    // =========================================================
+    // SELF-TEST
+    // =========================================================
+
+    /**
+     * Known-answer check of pbkdf2. First against the PBKDF2-HMAC-SHA256 vectors of RFC 7914 section 11
+     * (first 32-byte block), then against the JDK's PBKDF2WithHmacSHA256 for edge cases the vectors do
+     * not cover: the empty password, non-ASCII text and a password longer than the HMAC block.
+     * @throws IllegalStateException if any result differs.
+     */
+    static void selfTest() {
+        checkKnownAnswer("passwd", "salt", 1, "55ac046e56e3089fec1691c22544b605f94185216dde0465e68b9d57c20dacbc");
+        checkKnownAnswer("Password", "NaCl", 80_000, "4ddcd8f60b98be21830cee5ef22701f9641a4418d04c0414aeff08876b34ab56");
+
+        String[] passwords = {"", "a", "p\u00e4ssw\u00f6rd \u20ac", "x".repeat(100)};
+        int[] costs = {1, 2, 1_000};
+        byte[] salt = new byte[SALT_BYTES];
+        for (int i = 0; i < salt.length; i++) {
+            salt[i] = (byte) (i * 31 + 7);
+        }
+        try {
+            SecretKeyFactory reference = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            for (String password : passwords) {
+                for (int cost : costs) {
+                    // The JDK encodes the password chars as UTF-8, like hashPassword
+                    byte[] expected = reference.generateSecret(new PBEKeySpec(password.toCharArray(), salt, cost, 256)).getEncoded();
+                    byte[] actual = pbkdf2(password.getBytes(StandardCharsets.UTF_8), salt, cost);
+                    if (!Arrays.equals(expected, actual)) {
+                        throw new IllegalStateException("PBKDF2 self-test failed: result differs from the JDK for a "
+                                + password.length() + "-character password and " + cost + " iterations.");
+                    }
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 self-test could not run: " + e.getMessage(), e);
+        }
+    }
+
+    private static void checkKnownAnswer(String password, String salt, int cost, String expectedHex) {
+        byte[] actual = pbkdf2(password.getBytes(StandardCharsets.UTF_8), salt.getBytes(StandardCharsets.UTF_8), cost);
+        if (!Arrays.equals(HexFormat.of().parseHex(expectedHex), actual)) {
+            throw new IllegalStateException("PBKDF2 self-test failed for test vector P=\"" + password + "\", c=" + cost + ".");
+        }
+    }
+
+    // =========================================================
+    // INTERNALS
+    // =========================================================
+
+    /**
+     * PBKDF2-HMAC-SHA256 (RFC 8018) for a single 32-byte block, reusing this thread's Mac and
+     * one output buffer for all iterations.
+     */
+    private static byte[] pbkdf2(byte[] password, byte[] salt, int cost) {
+        Mac mac = HMAC.get();
+        try {
+            // HMAC pads short keys with zeros, so an empty password is the same key as one zero byte
+            // (SecretKeySpec rejects empty keys)
+            mac.init(new SecretKeySpec(password.length == 0 ? new byte[1] : password, HMAC_ALGORITHM));
+            mac.update(salt);
+            mac.update(new byte[] {0, 0, 0, 1}); // Block index 1
+            byte[] block = mac.doFinal();
+            byte[] result = block.clone();
+            for (int i = 1; i < cost; i++) {
+                mac.update(block);
+                mac.doFinal(block, 0);
+                for (int j = 0; j < result.length; j++) {
+                    result[j] ^= block[j];
+                }
+            }
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Security error during password hashing.", e);
+        }
+    }
+
+    /**
+     * The original scheme: unsalted SHA-256 of the platform-default encoding, base64 encoded.
+     */
+    private static boolean verifyLegacy(String plainPassword, String storedHash) {
+        byte[] expected;
+        try {
+            expected = Base64.getDecoder().decode(storedHash);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        byte[] actual = LEGACY_DIGEST.get().digest(plainPassword.getBytes());
+        return MessageDigest.isEqual(actual, expected);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package util;
+
+import java.util.function.Supplier;
+
+/**
+ * Logs how long each startup phase takes, and when it finished relative to the start of startup.
+ * Phases may run on different threads (e.g. database setup in parallel with the login window),
+ * so every line also names the thread it ran on.
+ *
+ * Example output:
+ *   Startup: Look-and-feel              38 ms (done at +41 ms, AWT-EventQueue-0)
+ *   Startup: Login window shown              (at +212 ms)
+ */
+public class StartupTimer {
+
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Runs and times one phase.
+     */
+    public void time(String phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs and times one phase that produces a value.
+     * A phase that throws is logged as failed and the exception is rethrown.
+     */
+    public <T> T time(String phase, Supplier<T> action) {
+        long phaseStart = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = action.get();
+            failed = false;
+            return result;
+        } finally {
+            long now = System.nanoTime();
+            System.out.printf("Startup: %-26s %6d ms (%s at +%d ms, %s)%n", phase, toMillis(now - phaseStart),
+                    failed ? "FAILED" : "done", toMillis(now - startNanos), Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Logs a point in time, such as the login window becoming visible.
+     */
+    public void milestone(String name) {
+        System.out.printf("Startup: %-26s        (at +%d ms)%n", name, toMillis(System.nanoTime() - startNanos));
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}